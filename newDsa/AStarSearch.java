@@ -1,4 +1,17 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class AStarSearch {
     private static class Node implements Comparable<Node> {
@@ -128,16 +141,1221 @@ public class AStarSearch {
         return path;
     }
     
-    // Utility method to print the grid with path
-    public static void printGridWithPath(int[][] grid, List<Node> path) {
+    // Read-only view of a map. Cells are addressed as (x, y) with
+    // 0 <= x < cols() and 0 <= y < rows().
+    public interface Grid {
+        int rows();
+        int cols();
+        boolean isBlocked(int x, int y);
+    }
+    
+    // Adapter for the plain int[][] maps (0 = open, 1 = obstacle)
+    private static final class ArrayGrid implements Grid {
+        private final int[][] cells;
+        
+        ArrayGrid(int[][] cells) {
+            this.cells = cells;
+        }
+        
+        public int rows() {
+            return cells.length;
+        }
+        
+        public int cols() {
+            return cells[0].length;
+        }
+        
+        public boolean isBlocked(int x, int y) {
+            return cells[y][x] == 1;
+        }
+    }
+    
+    // One bit per cell in a long[] (1 = obstacle), row-major
+    public static final class BitGrid implements Grid {
+        private final int rows, cols;
+        private final long[] bits;
+        
+        public BitGrid(int rows, int cols) {
+            this.rows = rows;
+            this.cols = cols;
+            this.bits = new long[(int) (((long) rows * cols + 63) >>> 6)];
+        }
+        
+        public static BitGrid fromArray(int[][] grid) {
+            BitGrid bitGrid = new BitGrid(grid.length, grid[0].length);
+            for (int y = 0; y < grid.length; y++) {
+                for (int x = 0; x < grid[0].length; x++) {
+                    bitGrid.setBlocked(x, y, grid[y][x] == 1);
+                }
+            }
+            return bitGrid;
+        }
+        
+        public void setBlocked(int x, int y, boolean blocked) {
+            long cell = (long) y * cols + x;
+            if (blocked) {
+                bits[(int) (cell >>> 6)] |= 1L << cell;
+            } else {
+                bits[(int) (cell >>> 6)] &= ~(1L << cell);
+            }
+        }
+        
+        public int rows() {
+            return rows;
+        }
+        
+        public int cols() {
+            return cols;
+        }
+        
+        public boolean isBlocked(int x, int y) {
+            long cell = (long) y * cols + x;
+            return (bits[(int) (cell >>> 6)] & (1L << cell)) != 0;
+        }
+    }
+    
+    // Bit-packed map read straight from a file through FileChannel.map, so
+    // opening it costs no heap and the pages are shared with other processes.
+    // Layout: int magic, int rows, int cols, int reserved, then the same
+    // row-major bits as BitGrid in little-endian longs. Large files are
+    // mapped in 1 GiB chunks because a single mapping is limited to 2 GiB.
+    // Searches still keep their own state on the heap, but only for the
+    // pages of cells they visit (see IndexedMinHeap).
+    public static final class MappedBitGrid implements Grid {
+        private static final int MAGIC = 0x47524944; // "GRID"
+        private static final int HEADER_BYTES = 16;
+        private static final int CHUNK_SHIFT = 27; // 2^27 longs = 1 GiB per mapping
+        
+        private final int rows, cols;
+        private final LongBuffer[] chunks;
+        
+        private MappedBitGrid(int rows, int cols, LongBuffer[] chunks) {
+            this.rows = rows;
+            this.cols = cols;
+            this.chunks = chunks;
+        }
+        
+        public static MappedBitGrid open(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (channel.size() < HEADER_BYTES) {
+                    throw new IOException("Grid file is truncated: " + file);
+                }
+                ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES)
+                                           .order(ByteOrder.LITTLE_ENDIAN);
+                if (header.getInt(0) != MAGIC) {
+                    throw new IOException("Not a grid file: " + file);
+                }
+                int rows = header.getInt(4);
+                int cols = header.getInt(8);
+                if (rows <= 0 || cols <= 0) {
+                    throw new IOException("Grid file has an invalid size of " + rows + " x " + cols + ": " + file);
+                }
+                
+                long words = ((long) rows * cols + 63) >>> 6;
+                if (channel.size() < HEADER_BYTES + words * 8) {
+                    throw new IOException("Grid file is truncated: " + file);
+                }
+                
+                // The mappings stay valid after the channel is closed
+                int chunkCount = (int) ((words + (1L << CHUNK_SHIFT) - 1) >>> CHUNK_SHIFT);
+                LongBuffer[] chunks = new LongBuffer[chunkCount];
+                for (int i = 0; i < chunkCount; i++) {
+                    long first = (long) i << CHUNK_SHIFT;
+                    long count = Math.min(1L << CHUNK_SHIFT, words - first);
+                    chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + first * 8, count * 8)
+                                       .order(ByteOrder.LITTLE_ENDIAN)
+                                       .asLongBuffer();
+                }
+                return new MappedBitGrid(rows, cols, chunks);
+            }
+        }
+        
+        // Write any grid in the format open() expects
+        public static void write(Grid grid, Path file) throws IOException {
+            int rows = grid.rows();
+            int cols = grid.cols();
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(rows).putInt(cols).putInt(0);
+            
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long cellCount = (long) rows * cols;
+                long word = 0;
+                for (long cell = 0; cell < cellCount; cell++) {
+                    if (grid.isBlocked((int) (cell % cols), (int) (cell / cols))) {
+                        word |= 1L << cell;
+                    }
+                    if ((cell & 63) == 63 || cell == cellCount - 1) {
+                        if (buffer.remaining() < 8) {
+                            buffer.flip();
+                            while (buffer.hasRemaining()) {
+                                channel.write(buffer);
+                            }
+                            buffer.clear();
+                        }
+                        buffer.putLong(word);
+                        word = 0;
+                    }
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }
+        
+        public int rows() {
+            return rows;
+        }
+        
+        public int cols() {
+            return cols;
+        }
+        
+        public boolean isBlocked(int x, int y) {
+            long cell = (long) y * cols + x;
+            long word = cell >>> 6;
+            long bits = chunks[(int) (word >>> CHUNK_SHIFT)].get((int) (word & ((1L << CHUNK_SHIFT) - 1)));
+            return (bits & (1L << cell)) != 0;
+        }
+    }
+    
+    // Indexed binary min-heap over cell ids (y * cols + x) with real decrease-key.
+    // Keys pack f in the high bits and h in the low bits, so ties on f prefer
+    // cells closer to the goal.
+    private static final class IndexedMinHeap {
+        // Per-cell state is kept in pages of 1024 cells that are allocated the
+        // first time a search touches them, so memory follows the visited
+        // region instead of the whole grid. Each cell takes four ints: stamp,
+        // pos, g-score and parent.
+        private static final int PAGE_SHIFT = 10;
+        private static final int PAGE_MASK = (1 << PAGE_SHIFT) - 1;
+        
+        private int[] cells;
+        private long[] keys;
+        private int size;
+        int expanded; // Number of cells popped since the last reset
+        
+        // pos == 0: never seen, > 0: heap slot + 1, < 0: closed.
+        // An entry only counts if its stamp matches the current generation,
+        // so starting a new search never has to clear the pages.
+        private final int[][] pages;
+        private int generation = 1;
+        
+        IndexedMinHeap(int cellCount) {
+            cells = new int[64];
+            keys = new long[64];
+            pages = new int[(cellCount >>> PAGE_SHIFT) + 1][];
+        }
+        
+        // Forget every cell from the previous search in O(1)
+        void reset() {
+            size = 0;
+            expanded = 0;
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(pages, null);
+                generation = 1;
+            }
+        }
+        
+        private int[] page(int cell) {
+            int[] page = pages[cell >>> PAGE_SHIFT];
+            if (page == null) {
+                page = new int[4 << PAGE_SHIFT];
+                pages[cell >>> PAGE_SHIFT] = page;
+            }
+            return page;
+        }
+        
+        int state(int cell) {
+            int[] page = pages[cell >>> PAGE_SHIFT];
+            if (page == null) {
+                return 0;
+            }
+            int at = (cell & PAGE_MASK) << 2;
+            return page[at] == generation ? page[at + 1] : 0;
+        }
+        
+        // g-score and parent are only meaningful for cells seen in this search
+        int gScore(int cell) {
+            return pages[cell >>> PAGE_SHIFT][((cell & PAGE_MASK) << 2) + 2];
+        }
+        
+        int parent(int cell) {
+            return pages[cell >>> PAGE_SHIFT][((cell & PAGE_MASK) << 2) + 3];
+        }
+        
+        void setPath(int cell, int gScore, int parent) {
+            int[] page = page(cell);
+            int at = (cell & PAGE_MASK) << 2;
+            page[at + 2] = gScore;
+            page[at + 3] = parent;
+        }
+        
+        boolean isEmpty() {
+            return size == 0;
+        }
+        
+        // Insert a new cell or lower the key of a cell already in the heap
+        void pushOrDecrease(int cell, long key) {
+            int slot = state(cell) - 1;
+            if (slot < 0) {
+                if (size == cells.length) {
+                    cells = Arrays.copyOf(cells, size * 2);
+                    keys = Arrays.copyOf(keys, size * 2);
+                }
+                slot = size++;
+                move(cell, key, slot);
+            } else if (key < keys[slot]) {
+                keys[slot] = key;
+            } else {
+                return;
+            }
+            siftUp(slot);
+        }
+        
+        // Remove the minimum cell and mark it closed
+        int pop() {
+            int top = cells[0];
+            pages[top >>> PAGE_SHIFT][((top & PAGE_MASK) << 2) + 1] = -1;
+            expanded++;
+            size--;
+            if (size > 0) {
+                move(cells[size], keys[size], 0);
+                siftDown(0);
+            }
+            return top;
+        }
+        
+        private void siftUp(int slot) {
+            int cell = cells[slot];
+            long key = keys[slot];
+            while (slot > 0) {
+                int parent = (slot - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                move(cells[parent], keys[parent], slot);
+                slot = parent;
+            }
+            move(cell, key, slot);
+        }
+        
+        private void siftDown(int slot) {
+            int cell = cells[slot];
+            long key = keys[slot];
+            int half = size >>> 1;
+            while (slot < half) {
+                int child = 2 * slot + 1;
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (key <= keys[child]) {
+                    break;
+                }
+                move(cells[child], keys[child], slot);
+                slot = child;
+            }
+            move(cell, key, slot);
+        }
+        
+        private void move(int cell, long key, int slot) {
+            cells[slot] = cell;
+            keys[slot] = key;
+            int[] page = page(cell);
+            int at = (cell & PAGE_MASK) << 2;
+            page[at] = generation;
+            page[at + 1] = slot + 1;
+        }
+    }
+    
+    // Scratch space for one search at a time: the open list and, in its pages,
+    // the g-scores and parents. Creating one costs a page table of
+    // cellCount / 1024 references; the pages themselves are filled in lazily.
+    private static final class SearchBuffers {
+        final IndexedMinHeap openList;
+        
+        SearchBuffers(int cellCount) {
+            openList = new IndexedMinHeap(cellCount);
+        }
+        
+    }
+    
+    
+    private static long heapKey(int g, int h) {
+        return ((long) (g + h) << 32) | h;
+    }
+    
+    // A* over flat int-indexed arrays. Same results as findPath, but the
+    // open list supports decrease-key and no objects are created per cell.
+    public static List<Node> findPathIndexed(int[][] grid, int startX, int startY, int goalX, int goalY) {
+        return findPath(new ArrayGrid(grid), startX, startY, goalX, goalY);
+    }
+    
+    // Same search on any Grid, e.g. a BitGrid or MappedBitGrid. The search
+    // buffers are int-indexed, so rows * cols must stay below 2^31; larger
+    // grids are rejected by cellCount. Each call gets its own paged buffers,
+    // so a query only pays for the cells it touches and keeps nothing afterwards.
+    public static List<Node> findPath(Grid grid, int startX, int startY, int goalX, int goalY) {
+        return findPathIndexed(grid, startX, startY, goalX, goalY, new SearchBuffers(cellCount(grid.rows(), grid.cols())));
+    }
+    
+    // Number of cells, checked to fit the int cell ids (y * cols + x) used by every search
+    private static int cellCount(int rows, int cols) {
+        long cells = (long) rows * cols;
+        if (cells > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Grid of " + rows + " x " + cols + " cells is too large to search; " +
+                                               "at most " + Integer.MAX_VALUE + " cells are supported");
+        }
+        return (int) cells;
+    }
+    
+    private static List<Node> findPathIndexed(int[][] grid, int startX, int startY, int goalX, int goalY,
+                                              SearchBuffers buffers) {
+        return findPathIndexed(new ArrayGrid(grid), startX, startY, goalX, goalY, buffers);
+    }
+    
+    private static List<Node> findPathIndexed(Grid grid, int startX, int startY, int goalX, int goalY,
+                                              SearchBuffers buffers) {
+        int rows = grid.rows();
+        int cols = grid.cols();
+        cellCount(rows, cols);
+        
+        if (startX < 0 || startX >= cols || startY < 0 || startY >= rows ||
+            goalX < 0 || goalX >= cols || goalY < 0 || goalY >= rows ||
+            grid.isBlocked(startX, startY) || grid.isBlocked(goalX, goalY)) {
+            return Collections.emptyList();
+        }
+        
+        IndexedMinHeap openList = buffers.openList;
+        openList.reset();
+        
+        int start = startY * cols + startX;
+        int goal = goalY * cols + goalX;
+        openList.setPath(start, 0, -1);
+        openList.pushOrDecrease(start, heapKey(0, Math.abs(startX - goalX) + Math.abs(startY - goalY)));
+        
+        while (!openList.isEmpty()) {
+            int current = openList.pop();
+            if (current == goal) {
+                return reconstructPath(openList, current, cols);
+            }
+            
+            int x = current % cols;
+            int y = current / cols;
+            int tentativeG = openList.gScore(current) + 1;
+            
+            for (int[] direction : DIRECTIONS) {
+                int newX = x + direction[0];
+                int newY = y + direction[1];
+                
+                if (newX < 0 || newX >= cols || newY < 0 || newY >= rows || grid.isBlocked(newX, newY)) {
+                    continue;
+                }
+                
+                int neighbor = newY * cols + newX;
+                int state = openList.state(neighbor);
+                if (state < 0 || (state > 0 && tentativeG >= openList.gScore(neighbor))) {
+                    continue; // Closed, or already reached at least as cheaply
+                }
+                
+                openList.setPath(neighbor, tentativeG, current);
+                int h = Math.abs(newX - goalX) + Math.abs(newY - goalY);
+                openList.pushOrDecrease(neighbor, heapKey(tentativeG, h));
+            }
+        }
+        
+        return Collections.emptyList();
+    }
+    
+    // Rebuild Node objects only for the cells on the final path
+    private static List<Node> reconstructPath(IndexedMinHeap openList, int cell, int cols) {
+        List<Node> path = new ArrayList<>();
+        while (cell != -1) {
+            Node node = new Node(cell % cols, cell / cols);
+            node.g = openList.gScore(cell);
+            node.f = node.g;
+            path.add(node);
+            cell = openList.parent(cell);
+        }
+        Collections.reverse(path);
+        for (int i = 1; i < path.size(); i++) {
+            path.get(i).parent = path.get(i - 1);
+        }
+        return path;
+    }
+    
+    // Jump Point Search for the same 4-connected, unit-cost grids as findPath.
+    // Straight runs are scanned without touching the open list; only cells
+    // with a forced neighbour (or the goal) are pushed as jump points. The
+    // result is expanded back into a cell-by-cell path of optimal length.
+    public static List<Node> findPathJumpPoint(int[][] grid, int startX, int startY, int goalX, int goalY) {
+        return findPathJumpPoint(grid, startX, startY, goalX, goalY, new SearchBuffers(cellCount(grid.length, grid[0].length)));
+    }
+    
+    private static List<Node> findPathJumpPoint(int[][] grid, int startX, int startY, int goalX, int goalY,
+                                                SearchBuffers buffers) {
         int rows = grid.length;
         int cols = grid[0].length;
+        cellCount(rows, cols);
+        
+        if (!isOpen(grid, startX, startY) || !isOpen(grid, goalX, goalY)) {
+            return Collections.emptyList();
+        }
+        
+        IndexedMinHeap openList = buffers.openList;
+        openList.reset();
+        
+        int start = startY * cols + startX;
+        int goal = goalY * cols + goalX;
+        openList.setPath(start, 0, -1);
+        openList.pushOrDecrease(start, heapKey(0, Math.abs(startX - goalX) + Math.abs(startY - goalY)));
+        
+        while (!openList.isEmpty()) {
+            int current = openList.pop();
+            if (current == goal) {
+                return expandJumpPath(openList, current, cols);
+            }
+            
+            int x = current % cols;
+            int y = current / cols;
+            
+            for (int[] direction : DIRECTIONS) {
+                int dx = direction[0];
+                int dy = direction[1];
+                
+                // Prune directions that the parent's straight run already covers
+                int from = openList.parent(current);
+                if (from != -1) {
+                    int px = from % cols;
+                    int py = from / cols;
+                    int inX = Integer.signum(x - px);
+                    int inY = Integer.signum(y - py);
+                    if (dx == -inX && dy == -inY) {
+                        continue; // Never walk straight back
+                    }
+                }
+                
+                int jumpPoint = jump(grid, x + dx, y + dy, dx, dy, goalX, goalY);
+                if (jumpPoint == -1) {
+                    continue;
+                }
+                
+                int state = openList.state(jumpPoint);
+                int jx = jumpPoint % cols;
+                int jy = jumpPoint / cols;
+                int tentativeG = openList.gScore(current) + Math.abs(jx - x) + Math.abs(jy - y);
+                if (state < 0 || (state > 0 && tentativeG >= openList.gScore(jumpPoint))) {
+                    continue;
+                }
+                
+                openList.setPath(jumpPoint, tentativeG, current);
+                int h = Math.abs(jx - goalX) + Math.abs(jy - goalY);
+                openList.pushOrDecrease(jumpPoint, heapKey(tentativeG, h));
+            }
+        }
+        
+        return Collections.emptyList();
+    }
+    
+    // Walk from (x, y) in direction (dx, dy) until a jump point is found.
+    // Returns the cell id of the jump point, or -1 if the run hits a wall.
+    private static int jump(int[][] grid, int x, int y, int dx, int dy, int goalX, int goalY) {
+        int cols = grid[0].length;
+        while (isOpen(grid, x, y)) {
+            if (x == goalX && y == goalY) {
+                return y * cols + x;
+            }
+            
+            if (dx != 0) {
+                // Horizontal run: a wall behind an open side cell forces a turn here
+                if ((isOpen(grid, x, y - 1) && !isOpen(grid, x - dx, y - 1)) ||
+                    (isOpen(grid, x, y + 1) && !isOpen(grid, x - dx, y + 1))) {
+                    return y * cols + x;
+                }
+            } else {
+                if ((isOpen(grid, x - 1, y) && !isOpen(grid, x - 1, y - dy)) ||
+                    (isOpen(grid, x + 1, y) && !isOpen(grid, x + 1, y - dy))) {
+                    return y * cols + x;
+                }
+                // Vertical run: stop wherever a horizontal run would find a jump point
+                if (jump(grid, x + 1, y, 1, 0, goalX, goalY) != -1 ||
+                    jump(grid, x - 1, y, -1, 0, goalX, goalY) != -1) {
+                    return y * cols + x;
+                }
+            }
+            
+            x += dx;
+            y += dy;
+        }
+        return -1;
+    }
+    
+    private static boolean isOpen(int[][] grid, int x, int y) {
+        return y >= 0 && y < grid.length && x >= 0 && x < grid[0].length && grid[y][x] != 1;
+    }
+    
+    // Jump points are always in a straight line from their parent, so the
+    // full path is recovered by filling in the cells between them.
+    private static List<Node> expandJumpPath(IndexedMinHeap openList, int cell, int cols) {
+        List<Integer> jumpPoints = new ArrayList<>();
+        while (cell != -1) {
+            jumpPoints.add(cell);
+            cell = openList.parent(cell);
+        }
+        Collections.reverse(jumpPoints);
+        
+        List<Node> path = new ArrayList<>();
+        Node previous = new Node(jumpPoints.get(0) % cols, jumpPoints.get(0) / cols);
+        path.add(previous);
+        for (int i = 1; i < jumpPoints.size(); i++) {
+            int toX = jumpPoints.get(i) % cols;
+            int toY = jumpPoints.get(i) / cols;
+            int stepX = Integer.signum(toX - previous.x);
+            int stepY = Integer.signum(toY - previous.y);
+            while (previous.x != toX || previous.y != toY) {
+                Node next = new Node(previous.x + stepX, previous.y + stepY);
+                next.g = previous.g + 1;
+                next.f = next.g;
+                next.parent = previous;
+                path.add(next);
+                previous = next;
+            }
+        }
+        return path;
+    }
+    
+    // Queries per leaf task when a batch is split across the pool
+    private static final int BATCH_GRAIN = 16;
+    
+    // Run many queries against one grid in parallel on the common pool.
+    // Each query is {startX, startY, goalX, goalY}; results keep query order.
+    public static List<List<Node>> findPaths(int[][] grid, int[][] queries) {
+        return findPaths(grid, queries, ForkJoinPool.commonPool());
+    }
+    
+    public static List<List<Node>> findPaths(int[][] grid, int[][] queries, ForkJoinPool pool) {
+        return findPaths(new ArrayGrid(grid), queries, pool);
+    }
+    
+    public static List<List<Node>> findPaths(Grid grid, int[][] queries, ForkJoinPool pool) {
+        cellCount(grid.rows(), grid.cols());
+        List<List<Node>> results = new ArrayList<>(Collections.nCopies(queries.length, null));
+        if (queries.length > 0) {
+            pool.invoke(new BatchTask(grid, queries, results, 0, queries.length));
+        }
+        return results;
+    }
+    
+    private static final class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final Grid grid;
+        private final int[][] queries;
+        private final List<List<Node>> results;
+        private final int from, to;
+        
+        BatchTask(Grid grid, int[][] queries, List<List<Node>> results, int from, int to) {
+            this.grid = grid;
+            this.queries = queries;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from > BATCH_GRAIN) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BatchTask(grid, queries, results, from, mid),
+                          new BatchTask(grid, queries, results, mid, to));
+                return;
+            }
+            
+            // The leaf's buffers are reused across its queries and dropped with the task
+            SearchBuffers buffers = new SearchBuffers(cellCount(grid.rows(), grid.cols()));
+            for (int i = from; i < to; i++) {
+                int[] q = queries[i];
+                results.set(i, findPathIndexed(grid, q[0], q[1], q[2], q[3], buffers));
+            }
+        }
+    }
+    
+    // Bounded LRU cache of paths on one grid, keyed by (start, goal) and
+    // tagged with the grid version they were computed on. setCell bumps the
+    // version, so every older entry becomes stale and is dropped on its next
+    // lookup. Searches hold the read side of gridLock and setCell the write
+    // side, so a miss never sees a half-edited grid or caches its result under
+    // a version it was not computed on; edits must go through setCell. Cached
+    // lists are unmodifiable because every caller of the same query shares them.
+    public static class PathCache {
+        private final int[][] grid;
+        private final int capacity;
+        private final AtomicLong version = new AtomicLong();
+        private final ReentrantReadWriteLock gridLock = new ReentrantReadWriteLock();
+        private final LinkedHashMap<Long, CachedPath> entries;
+        
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        
+        private static final class CachedPath {
+            final long version;
+            final List<Node> path;
+            
+            CachedPath(long version, List<Node> path) {
+                this.version = version;
+                this.path = path;
+            }
+        }
+        
+        public PathCache(int[][] grid, int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+            }
+            cellCount(grid.length, grid[0].length);
+            this.grid = grid;
+            this.capacity = capacity;
+            // Access order turns the LinkedHashMap into an LRU list
+            this.entries = new LinkedHashMap<Long, CachedPath>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, CachedPath> eldest) {
+                    if (size() > PathCache.this.capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+        
+        public List<Node> findPath(int startX, int startY, int goalX, int goalY) {
+            int cols = grid[0].length;
+            // Out-of-range coordinates would alias a real cell's key, so answer them uncached
+            if (startX < 0 || startX >= cols || startY < 0 || startY >= grid.length ||
+                goalX < 0 || goalX >= cols || goalY < 0 || goalY >= grid.length) {
+                return Collections.emptyList();
+            }
+            long key = ((long) (startY * cols + startX) << 32) | ((goalY * cols + goalX) & 0xFFFFFFFFL);
+            
+            gridLock.readLock().lock();
+            try {
+                // The version cannot move while the read lock is held
+                long current = version.get();
+                synchronized (entries) {
+                    CachedPath cached = entries.get(key);
+                    if (cached != null) {
+                        if (cached.version == current) {
+                            hits.increment();
+                            return cached.path;
+                        }
+                        entries.remove(key); // Computed before the last edit
+                    }
+                }
+                
+                misses.increment();
+                List<Node> path = Collections.unmodifiableList(
+                    findPathIndexed(grid, startX, startY, goalX, goalY, new SearchBuffers(cellCount(grid.length, cols))));
+                synchronized (entries) {
+                    entries.put(key, new CachedPath(current, path));
+                }
+                return path;
+            } finally {
+                gridLock.readLock().unlock();
+            }
+        }
+        
+        // Change a cell and invalidate every cached path. Waits for running
+        // searches to finish, and holds new ones back until the edit is done.
+        public void setCell(int x, int y, int value) {
+            gridLock.writeLock().lock();
+            try {
+                grid[y][x] = value;
+                version.incrementAndGet();
+            } finally {
+                gridLock.writeLock().unlock();
+            }
+        }
+        
+        public long getVersion() {
+            return version.get();
+        }
+        
+        public long getHits() {
+            return hits.sum();
+        }
+        
+        public long getMisses() {
+            return misses.sum();
+        }
+        
+        public long getEvictions() {
+            return evictions.sum();
+        }
+        
+        public int size() {
+            synchronized (entries) {
+                return entries.size();
+            }
+        }
+    }
+    
+    // Connected components of the open cells, kept in a UnionFind over cell
+    // indices, so a query between different components is rejected without
+    // searching. Opening a cell unions it with its open neighbours straight
+    // away. Closing a cell can split a component, which union-find cannot
+    // undo, so it only marks the index stale and the next query rebuilds it.
+    // Not thread-safe.
+    public static class ReachabilityIndex {
+        private final int[][] grid;
+        private final int rows, cols;
+        private UnionFind components;
+        private boolean stale = true;
+        
+        int rebuilds;   // Full rebuilds so far
+        int rejections; // Queries answered without a search
+        
+        public ReachabilityIndex(int[][] grid) {
+            this.grid = grid;
+            this.rows = grid.length;
+            this.cols = grid[0].length;
+            cellCount(rows, cols);
+        }
+        
+        public boolean canReach(int startX, int startY, int goalX, int goalY) {
+            if (!isOpen(grid, startX, startY) || !isOpen(grid, goalX, goalY)) {
+                return false;
+            }
+            if (stale) {
+                rebuild();
+            }
+            return components.connected(startY * cols + startX, goalY * cols + goalX);
+        }
+        
+        public List<Node> findPath(int startX, int startY, int goalX, int goalY) {
+            if (!canReach(startX, startY, goalX, goalY)) {
+                rejections++;
+                return Collections.emptyList();
+            }
+            return findPathIndexed(grid, startX, startY, goalX, goalY, new SearchBuffers(cellCount(rows, cols)));
+        }
+        
+        // Open (0) or block (1) a cell
+        public void setCell(int x, int y, int value) {
+            boolean wasOpen = isOpen(grid, x, y);
+            grid[y][x] = value;
+            boolean nowOpen = isOpen(grid, x, y);
+            if (wasOpen && !nowOpen) {
+                stale = true;
+            } else if (!wasOpen && nowOpen && !stale) {
+                joinOpenNeighbours(x, y);
+            }
+        }
+        
+        private void rebuild() {
+            components = new UnionFind(cellCount(rows, cols));
+            for (int y = 0; y < rows; y++) {
+                for (int x = 0; x < cols; x++) {
+                    if (grid[y][x] != 1) {
+                        // Right and down neighbours cover every edge once
+                        if (x + 1 < cols && grid[y][x + 1] != 1) {
+                            components.union(y * cols + x, y * cols + x + 1);
+                        }
+                        if (y + 1 < rows && grid[y + 1][x] != 1) {
+                            components.union(y * cols + x, (y + 1) * cols + x);
+                        }
+                    }
+                }
+            }
+            stale = false;
+            rebuilds++;
+        }
+        
+        private void joinOpenNeighbours(int x, int y) {
+            for (int[] dir : DIRECTIONS) {
+                int nx = x + dir[0], ny = y + dir[1];
+                if (isOpen(grid, nx, ny)) {
+                    components.union(y * cols + x, ny * cols + nx);
+                }
+            }
+        }
+    }
+    
+    // Hierarchical A* (HPA*). The grid is split into square clusters. Each open
+    // stretch of a cluster border becomes one or two entrances, and distances
+    // between the entrances of a cluster are precomputed. A query searches this
+    // small abstract graph first, then refines each hop with findPathIndexed.
+    // Paths are near-optimal rather than exact. Edits through setCell only
+    // recompute the clusters whose entrances or interior actually changed.
+    // Not thread-safe: the scratch buffers belong to the instance.
+    public static class ClusterMap {
+        // Border stretches at least this long get an entrance at each end
+        private static final int WIDE_ENTRANCE = 6;
+        
+        private final int[][] grid;
+        private final int rows, cols;
+        private final int clusterSize;
+        private final int clustersX, clustersY;
+        
+        // Per cluster: sorted entrance cells, and a k x k matrix of distances
+        // between them inside the cluster (-1 = not connected)
+        private final int[][] entrances;
+        private final int[][] intraDist;
+        
+        // Per cluster: {cell, neighbour cell} pairs across its east / south border
+        private final int[][] eastCrossings;
+        private final int[][] southCrossings;
+        
+        int clustersRebuilt; // Number of cluster recomputations so far
+        
+        // Scratch space for cluster-local BFS and for refining abstract hops
+        private final int[] bfsDist;
+        private final int[] bfsQueue;
+        private SearchBuffers buffers;
+        
+        public ClusterMap(int[][] grid, int clusterSize) {
+            this.grid = grid;
+            this.rows = grid.length;
+            this.cols = grid[0].length;
+            cellCount(rows, cols);
+            this.clusterSize = clusterSize;
+            this.clustersX = (cols + clusterSize - 1) / clusterSize;
+            this.clustersY = (rows + clusterSize - 1) / clusterSize;
+            
+            int clusterCount = clustersX * clustersY;
+            entrances = new int[clusterCount][];
+            intraDist = new int[clusterCount][];
+            eastCrossings = new int[clusterCount][];
+            southCrossings = new int[clusterCount][];
+            bfsDist = new int[clusterSize * clusterSize];
+            bfsQueue = new int[clusterSize * clusterSize];
+            
+            for (int c = 0; c < clusterCount; c++) {
+                eastCrossings[c] = findCrossings(c, true);
+                southCrossings[c] = findCrossings(c, false);
+            }
+            for (int c = 0; c < clusterCount; c++) {
+                rebuildCluster(c);
+            }
+        }
+        
+        // Open (0) or block (1) a cell and repair the abstraction around it
+        public void setCell(int x, int y, int value) {
+            if (grid[y][x] == value) {
+                return;
+            }
+            grid[y][x] = value;
+            
+            int cx = x / clusterSize;
+            int cy = y / clusterSize;
+            int c = cy * clustersX + cx;
+            Set<Integer> dirty = new HashSet<>();
+            dirty.add(c);
+            
+            // A border cell also changes the entrances shared with the neighbour
+            if (x == cx * clusterSize && cx > 0) {
+                eastCrossings[c - 1] = findCrossings(c - 1, true);
+                dirty.add(c - 1);
+            }
+            if (x == Math.min((cx + 1) * clusterSize, cols) - 1 && cx + 1 < clustersX) {
+                eastCrossings[c] = findCrossings(c, true);
+                dirty.add(c + 1);
+            }
+            if (y == cy * clusterSize && cy > 0) {
+                southCrossings[c - clustersX] = findCrossings(c - clustersX, false);
+                dirty.add(c - clustersX);
+            }
+            if (y == Math.min((cy + 1) * clusterSize, rows) - 1 && cy + 1 < clustersY) {
+                southCrossings[c] = findCrossings(c, false);
+                dirty.add(c + clustersX);
+            }
+            
+            for (int cluster : dirty) {
+                rebuildCluster(cluster);
+            }
+        }
+        
+        public List<Node> findPath(int startX, int startY, int goalX, int goalY) {
+            if (!isOpen(grid, startX, startY) || !isOpen(grid, goalX, goalY)) {
+                return Collections.emptyList();
+            }
+            
+            int start = startY * cols + startX;
+            int goal = goalY * cols + goalX;
+            int startCluster = clusterOf(start);
+            int goalCluster = clusterOf(goal);
+            
+            // Temporarily connect start and goal to the entrances of their clusters
+            bfs(startCluster, start);
+            int[] startCost = entranceDistances(startCluster);
+            int direct = startCluster == goalCluster ? bfsDist[localIndex(startCluster, goal)] : -1;
+            bfs(goalCluster, goal);
+            int[] goalCost = entranceDistances(goalCluster);
+            
+            // A* over the abstract graph; entries are {f, cell, g}
+            Map<Integer, Integer> gScore = new HashMap<>();
+            Map<Integer, Integer> parent = new HashMap<>();
+            PriorityQueue<int[]> openList = new PriorityQueue<>((a, b) -> Integer.compare(a[0], b[0]));
+            gScore.put(start, 0);
+            openList.add(new int[] {manhattan(start, goal), start, 0});
+            
+            while (!openList.isEmpty()) {
+                int[] entry = openList.poll();
+                int u = entry[1];
+                int g = entry[2];
+                if (g > gScore.get(u)) {
+                    continue; // Stale entry
+                }
+                if (u == goal) {
+                    return refine(parent, goal);
+                }
+                
+                if (u == start) {
+                    int[] cells = entrances[startCluster];
+                    for (int i = 0; i < cells.length; i++) {
+                        if (startCost[i] >= 0) {
+                            relax(u, cells[i], startCost[i], goal, gScore, parent, openList);
+                        }
+                    }
+                    if (direct >= 0) {
+                        relax(u, goal, direct, goal, gScore, parent, openList);
+                    }
+                }
+                
+                int c = clusterOf(u);
+                int[] cells = entrances[c];
+                int k = Arrays.binarySearch(cells, u);
+                if (k < 0) {
+                    continue; // Start cell that is not itself an entrance
+                }
+                for (int j = 0; j < cells.length; j++) {
+                    int d = intraDist[c][k * cells.length + j];
+                    if (d > 0) {
+                        relax(u, cells[j], g + d, goal, gScore, parent, openList);
+                    }
+                }
+                if (c == goalCluster && goalCost[k] >= 0) {
+                    relax(u, goal, g + goalCost[k], goal, gScore, parent, openList);
+                }
+                
+                // Step across cluster borders
+                int cx = c % clustersX;
+                int cy = c / clustersX;
+                relaxCrossings(u, g, eastCrossings[c], 0, goal, gScore, parent, openList);
+                relaxCrossings(u, g, southCrossings[c], 0, goal, gScore, parent, openList);
+                if (cx > 0) {
+                    relaxCrossings(u, g, eastCrossings[c - 1], 1, goal, gScore, parent, openList);
+                }
+                if (cy > 0) {
+                    relaxCrossings(u, g, southCrossings[c - clustersX], 1, goal, gScore, parent, openList);
+                }
+            }
+            
+            return Collections.emptyList();
+        }
+        
+        private void relax(int from, int to, int g, int goal, Map<Integer, Integer> gScore,
+                           Map<Integer, Integer> parent, PriorityQueue<int[]> openList) {
+            if (g < gScore.getOrDefault(to, Integer.MAX_VALUE)) {
+                gScore.put(to, g);
+                parent.put(to, from);
+                openList.add(new int[] {g + manhattan(to, goal), to, g});
+            }
+        }
+        
+        // Follow every crossing whose side `side` (0 = this cluster, 1 = neighbour) is u
+        private void relaxCrossings(int u, int g, int[] crossings, int side, int goal, Map<Integer, Integer> gScore,
+                                    Map<Integer, Integer> parent, PriorityQueue<int[]> openList) {
+            for (int i = 0; i < crossings.length; i += 2) {
+                if (crossings[i + side] == u) {
+                    relax(u, crossings[i + 1 - side], g + 1, goal, gScore, parent, openList);
+                }
+            }
+        }
+        
+        // Turn the abstract hops into a full cell path with the flat A*
+        private List<Node> refine(Map<Integer, Integer> parent, int goal) {
+            List<Integer> hops = new ArrayList<>();
+            for (Integer cell = goal; cell != null; cell = parent.get(cell)) {
+                hops.add(cell);
+            }
+            Collections.reverse(hops);
+            
+            if (buffers == null) {
+                buffers = new SearchBuffers(cellCount(rows, cols));
+            }
+            
+            List<Node> path = new ArrayList<>();
+            path.add(new Node(hops.get(0) % cols, hops.get(0) / cols));
+            for (int i = 1; i < hops.size(); i++) {
+                int a = hops.get(i - 1);
+                int b = hops.get(i);
+                List<Node> segment = findPathIndexed(grid, a % cols, a / cols, b % cols, b / cols, buffers);
+                for (int j = 1; j < segment.size(); j++) {
+                    Node previous = path.get(path.size() - 1);
+                    Node next = segment.get(j);
+                    next.g = previous.g + 1;
+                    next.f = next.g;
+                    next.parent = previous;
+                    path.add(next);
+                }
+            }
+            return path;
+        }
+        
+        // Recompute a cluster's entrance list and its internal distance matrix
+        private void rebuildCluster(int c) {
+            int cx = c % clustersX;
+            int cy = c / clustersX;
+            
+            List<Integer> cells = new ArrayList<>();
+            addSide(cells, eastCrossings[c], 0);
+            addSide(cells, southCrossings[c], 0);
+            if (cx > 0) {
+                addSide(cells, eastCrossings[c - 1], 1);
+            }
+            if (cy > 0) {
+                addSide(cells, southCrossings[c - clustersX], 1);
+            }
+            
+            int[] sorted = cells.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+            int k = sorted.length;
+            int[] dist = new int[k * k];
+            for (int i = 0; i < k; i++) {
+                bfs(c, sorted[i]);
+                for (int j = 0; j < k; j++) {
+                    dist[i * k + j] = bfsDist[localIndex(c, sorted[j])];
+                }
+            }
+            
+            entrances[c] = sorted;
+            intraDist[c] = dist;
+            clustersRebuilt++;
+        }
+        
+        private static void addSide(List<Integer> cells, int[] crossings, int side) {
+            for (int i = side; i < crossings.length; i += 2) {
+                cells.add(crossings[i]);
+            }
+        }
+        
+        // Scan the east (or south) border of a cluster for open stretches.
+        // Short stretches get one crossing in the middle, long ones one at each end.
+        private int[] findCrossings(int c, boolean east) {
+            int cx = c % clustersX;
+            int cy = c / clustersX;
+            if (east ? cx + 1 >= clustersX : cy + 1 >= clustersY) {
+                return new int[0];
+            }
+            
+            int length = east ? Math.min(clusterSize, rows - cy * clusterSize) : Math.min(clusterSize, cols - cx * clusterSize);
+            int fixed = east ? (cx + 1) * clusterSize - 1 : (cy + 1) * clusterSize - 1;
+            int offset = east ? cy * clusterSize : cx * clusterSize;
+            
+            List<Integer> crossings = new ArrayList<>();
+            int runStart = -1;
+            for (int i = 0; i <= length; i++) {
+                boolean open = i < length && (east
+                    ? grid[offset + i][fixed] != 1 && grid[offset + i][fixed + 1] != 1
+                    : grid[fixed][offset + i] != 1 && grid[fixed + 1][offset + i] != 1);
+                if (open && runStart < 0) {
+                    runStart = i;
+                } else if (!open && runStart >= 0) {
+                    int runLength = i - runStart;
+                    if (runLength >= WIDE_ENTRANCE) {
+                        addCrossing(crossings, east, fixed, offset + runStart);
+                        addCrossing(crossings, east, fixed, offset + i - 1);
+                    } else {
+                        addCrossing(crossings, east, fixed, offset + runStart + runLength / 2);
+                    }
+                    runStart = -1;
+                }
+            }
+            return crossings.stream().mapToInt(Integer::intValue).toArray();
+        }
+        
+        private void addCrossing(List<Integer> crossings, boolean east, int fixed, int along) {
+            if (east) {
+                crossings.add(along * cols + fixed);
+                crossings.add(along * cols + fixed + 1);
+            } else {
+                crossings.add(fixed * cols + along);
+                crossings.add((fixed + 1) * cols + along);
+            }
+        }
+        
+        // Breadth-first search from a cell, confined to cluster c.
+        // Leaves distances (or -1) in bfsDist, indexed by localIndex.
+        private void bfs(int c, int source) {
+            int left = (c % clustersX) * clusterSize;
+            int top = (c / clustersX) * clusterSize;
+            int right = Math.min(left + clusterSize, cols);
+            int bottom = Math.min(top + clusterSize, rows);
+            
+            Arrays.fill(bfsDist, -1);
+            int head = 0, tail = 0;
+            bfsDist[localIndex(c, source)] = 0;
+            bfsQueue[tail++] = source;
+            
+            while (head < tail) {
+                int cell = bfsQueue[head++];
+                int x = cell % cols;
+                int y = cell / cols;
+                int d = bfsDist[localIndex(c, cell)] + 1;
+                for (int[] direction : DIRECTIONS) {
+                    int newX = x + direction[0];
+                    int newY = y + direction[1];
+                    if (newX < left || newX >= right || newY < top || newY >= bottom || grid[newY][newX] == 1) {
+                        continue;
+                    }
+                    int neighbor = newY * cols + newX;
+                    int local = localIndex(c, neighbor);
+                    if (bfsDist[local] < 0) {
+                        bfsDist[local] = d;
+                        bfsQueue[tail++] = neighbor;
+                    }
+                }
+            }
+        }
+        
+        private int[] entranceDistances(int c) {
+            int[] cells = entrances[c];
+            int[] result = new int[cells.length];
+            for (int i = 0; i < cells.length; i++) {
+                result[i] = bfsDist[localIndex(c, cells[i])];
+            }
+            return result;
+        }
+        
+        private int clusterOf(int cell) {
+            return (cell / cols / clusterSize) * clustersX + (cell % cols) / clusterSize;
+        }
+        
+        private int localIndex(int c, int cell) {
+            int x = cell % cols - (c % clustersX) * clusterSize;
+            int y = cell / cols - (c / clustersX) * clusterSize;
+            return y * clusterSize + x;
+        }
+        
+        private int manhattan(int a, int b) {
+            return Math.abs(a % cols - b % cols) + Math.abs(a / cols - b / cols);
+        }
+    }
+    
+    // Utility method to print the grid with path
+    public static void printGridWithPath(int[][] grid, List<Node> path) {
+        printGridWithPath(new ArrayGrid(grid), path);
+    }
+    
+    public static void printGridWithPath(Grid grid, List<Node> path) {
+        int rows = grid.rows();
+        int cols = grid.cols();
         char[][] display = new char[rows][cols];
         
         // Initialize the display grid
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
-                if (grid[i][j] == 1) {
+                if (grid.isBlocked(j, i)) {
                     display[i][j] = '#'; // Wall
                 } else {
                     display[i][j] = '.'; // Open space
@@ -194,5 +1412,204 @@ public class AStarSearch {
                 System.out.print("(" + node.x + "," + node.y + ") ");
             }
         }
+        
+        // Compare the object-based and indexed searches on a larger maze
+        int[][] bigGrid = buildMaze(300, 300, 42);
+        
+        long begin = System.nanoTime();
+        List<Node> slowPath = findPath(bigGrid, 0, 0, 299, 299);
+        long slowTime = System.nanoTime() - begin;
+        
+        begin = System.nanoTime();
+        List<Node> fastPath = findPathIndexed(bigGrid, 0, 0, 299, 299);
+        long fastTime = System.nanoTime() - begin;
+        
+        System.out.println("\n\n300x300 maze: findPath " + (slowPath.size() - 1) + " steps in " + slowTime / 1_000_000 + " ms, " +
+                           "findPathIndexed " + (fastPath.size() - 1) + " steps in " + fastTime / 1_000_000 + " ms");
+        
+        // Jump Point Search skips the symmetric cells plain A* expands on open maps
+        int[][] openGrid = new int[1000][1000];
+        for (int x = 100; x < 900; x += 50) {
+            for (int y = 200; y < 800; y++) {
+                openGrid[y][x] = 1;
+            }
+        }
+        openGrid[500][0] = 1;
+        
+        SearchBuffers buffers = new SearchBuffers(1000 * 1000);
+        List<Node> astarPath = findPathIndexed(openGrid, 0, 999, 999, 0, buffers);
+        int astarExpanded = buffers.openList.expanded;
+        List<Node> jpsPath = findPathJumpPoint(openGrid, 0, 999, 999, 0, buffers);
+        int jpsExpanded = buffers.openList.expanded;
+        
+        System.out.println("1000x1000 open map: A* " + (astarPath.size() - 1) + " steps, " + astarExpanded + " expansions; " +
+                           "JPS " + (jpsPath.size() - 1) + " steps, " + jpsExpanded + " expansions");
+        
+        // Batch queries: each leaf task's buffers serve its share of the searches
+        Random random = new Random(7);
+        int[][] queries = new int[2000][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = new int[] {random.nextInt(300), random.nextInt(300), random.nextInt(300), random.nextInt(300)};
+        }
+        
+        ForkJoinPool singleThread = new ForkJoinPool(1);
+        begin = System.nanoTime();
+        findPaths(bigGrid, queries, singleThread);
+        long serialTime = System.nanoTime() - begin;
+        singleThread.shutdown();
+        
+        begin = System.nanoTime();
+        List<List<Node>> batch = findPaths(bigGrid, queries);
+        long parallelTime = System.nanoTime() - begin;
+        
+        int found = 0;
+        for (List<Node> p : batch) {
+            if (!p.isEmpty()) {
+                found++;
+            }
+        }
+        System.out.println(queries.length + " batch queries (" + found + " reachable): 1 thread " + serialTime / 1_000_000 + " ms, " +
+                           ForkJoinPool.commonPool().getParallelism() + " threads " + parallelTime / 1_000_000 + " ms");
+        
+        // Hierarchical search over 20x20 clusters, then a local edit
+        ClusterMap clusterMap = new ClusterMap(bigGrid, 20);
+        int clusterCount = clusterMap.clustersRebuilt;
+        begin = System.nanoTime();
+        List<Node> hpaPath = clusterMap.findPath(0, 0, 299, 299);
+        long hpaTime = System.nanoTime() - begin;
+        System.out.println("HPA* on 300x300 maze: " + (hpaPath.size() - 1) + " steps in " + hpaTime / 1_000_000 + " ms");
+        
+        clusterMap.setCell(150, 150, 1 - bigGrid[150][150]);
+        System.out.println("Flipping cell (150,150) recomputed " + (clusterMap.clustersRebuilt - clusterCount) +
+                           " of " + clusterCount + " clusters");
+        
+        // The same search over a bit-packed grid memory-mapped from disk
+        try {
+            Path mapFile = Files.createTempFile("astar", ".grid");
+            MappedBitGrid.write(BitGrid.fromArray(grid), mapFile);
+            MappedBitGrid mapped = MappedBitGrid.open(mapFile);
+            
+            List<Node> mappedPath = findPath(mapped, startX, startY, goalX, goalY);
+            System.out.println("\nPath on memory-mapped grid (" + Files.size(mapFile) + " bytes) with " +
+                               (mappedPath.size() - 1) + " steps:");
+            printGridWithPath(mapped, mappedPath);
+            
+            // Headers with a non-positive size, or files shorter than their header claims, fail to open
+            int[][] badHeaders = {{0, 5}, {-3, 5}, {1000, 1000}};
+            for (int[] size : badHeaders) {
+                ByteBuffer bytes = ByteBuffer.allocate(24).order(ByteOrder.LITTLE_ENDIAN);
+                bytes.putInt(0x47524944).putInt(size[0]).putInt(size[1]).putInt(0).putLong(0);
+                Files.write(mapFile, bytes.array());
+                try {
+                    MappedBitGrid.open(mapFile);
+                    System.out.println("Opened a " + size[0] + " x " + size[1] + " header unexpectedly");
+                } catch (IOException e) {
+                    System.out.println("Rejected a " + size[0] + " x " + size[1] + " header over 8 bytes of cells");
+                }
+            }
+            Files.write(mapFile, new byte[8]);
+            try {
+                MappedBitGrid.open(mapFile);
+                System.out.println("Opened an 8-byte file unexpectedly");
+            } catch (IOException e) {
+                System.out.println("Rejected an 8-byte file");
+            }
+            Files.deleteIfExists(mapFile);
+        } catch (IOException e) {
+            System.out.println("Could not use a mapped grid: " + e.getMessage());
+        }
+        
+        // Repeated queries are served from the cache until the grid changes
+        PathCache cache = new PathCache(buildMaze(300, 300, 42), 1000);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 200; i++) {
+                int[] q = queries[i];
+                cache.findPath(q[0], q[1], q[2], q[3]);
+            }
+            if (round == 1) {
+                cache.setCell(150, 150, 1);
+            }
+        }
+        
+        // An out-of-range query must not poison the entry of the cell its key would alias
+        PathCache small = new PathCache(new int[5][5], 10);
+        small.findPath(-1, 1, 4, 4);
+        System.out.println("\nOut-of-range query then (4,0) -> (4,4): " + small.findPath(4, 0, 4, 4).size() +
+                           " cells (direct search " + findPathIndexed(new int[5][5], 4, 0, 4, 4).size() + ")");
+        System.out.println("Path cache: " + cache.getHits() + " hits, " + cache.getMisses() + " misses, " +
+                           cache.getEvictions() + " evictions, version " + cache.getVersion());
+        
+        // Edits racing with misses: once the last edit blocks (2,2), no cached path may cross it
+        PathCache racing = new PathCache(new int[5][5], 10);
+        Thread editor = new Thread(() -> {
+            for (int i = 0; i < 20000; i++) {
+                racing.setCell(2, 2, i & 1);
+            }
+            racing.setCell(2, 2, 1);
+        });
+        editor.start();
+        while (editor.isAlive()) {
+            racing.findPath(0, 2, 4, 2);
+        }
+        boolean crossesWall = false;
+        for (Node node : racing.findPath(0, 2, 4, 2)) {
+            crossesWall |= node.x == 2 && node.y == 2;
+        }
+        System.out.println("After racing edits the cached path avoids (2,2): " + !crossesWall);
+        
+        try {
+            racing.findPath(0, 2, 4, 2).clear();
+            System.out.println("Cached path was modifiable");
+        } catch (UnsupportedOperationException e) {
+            System.out.println("Cached paths are read-only");
+        }
+        try {
+            new PathCache(new int[5][5], 0);
+            System.out.println("Capacity 0 was accepted");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Rejected: " + e.getMessage());
+        }
+        
+        // Split the maze with a wall: queries across it are rejected by the reachability index
+        int[][] splitGrid = buildMaze(300, 300, 42);
+        for (int y = 0; y < 300; y++) {
+            splitGrid[y][150] = 1;
+        }
+        ReachabilityIndex reachability = new ReachabilityIndex(splitGrid);
+        begin = System.nanoTime();
+        for (int i = 0; i < 200; i++) {
+            findPathIndexed(splitGrid, 0, i, 299, 299 - i);
+        }
+        long searchTime = System.nanoTime() - begin;
+        begin = System.nanoTime();
+        for (int i = 0; i < 200; i++) {
+            reachability.findPath(0, i, 299, 299 - i);
+        }
+        long filteredTime = System.nanoTime() - begin;
+        System.out.println("200 queries across a wall: A* " + searchTime / 1_000_000 + " ms, with reachability index " +
+                           filteredTime / 1_000_000 + " ms (" + reachability.rejections + " rejected, " +
+                           reachability.rebuilds + " rebuild)");
+        
+        // Opening a gap joins the halves at once; closing it again forces one lazy rebuild
+        reachability.setCell(150, 0, 0);
+        boolean joined = reachability.canReach(0, 0, 299, 299);
+        reachability.setCell(150, 0, 1);
+        boolean split = !reachability.canReach(0, 0, 299, 299);
+        System.out.println("After opening (150,0): reachable " + joined + "; after closing it: unreachable " + split +
+                           ", rebuilds " + reachability.rebuilds);
+    }
+    
+    // Build a grid with random obstacles (about 25%), keeping the corners open
+    private static int[][] buildMaze(int rows, int cols, long seed) {
+        Random random = new Random(seed);
+        int[][] grid = new int[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                grid[i][j] = random.nextInt(4) == 0 ? 1 : 0;
+            }
+        }
+        grid[0][0] = 0;
+        grid[rows - 1][cols - 1] = 0;
+        return grid;
     }
 }
\ No newline at end of file
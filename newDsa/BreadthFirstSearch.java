@@ -1,35 +1,299 @@
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 public class BreadthFirstSearch {
-    private Map<String, List<String>> graph;
+    private final LabeledGraph graph;
     
     public BreadthFirstSearch() {
-        graph = new HashMap<>();
+        this(new LabeledGraph());
+    }
+    
+    // Traverse an existing graph; edges added here or through graph are seen by both
+    public BreadthFirstSearch(LabeledGraph graph) {
+        this.graph = graph;
     }
     
     public void addEdge(String source, String destination) {
-        graph.computeIfAbsent(source, k -> new ArrayList<>()).add(destination);
-        graph.computeIfAbsent(destination, k -> new ArrayList<>()); // Ensure the destination is in the graph
+        graph.addEdge(source, destination);
     }
     
     public void bfs(String start) {
-        Set<String> visited = new HashSet<>();
-        Queue<String> queue = new LinkedList<>();
+        if (graph.dictionary().find(start) < 0) {
+            System.out.print(start + " "); // An unknown start is still printed, as a traversal of one vertex
+            return;
+        }
+        for (String vertex : bfsOrder(start)) {
+            System.out.print(vertex + " ");
+        }
+    }
+    
+    // Labels in the order BFS visits them; empty if start is not in the graph
+    public List<String> bfsOrder(String start) {
+        int source = graph.dictionary().find(start);
+        if (source < 0) {
+            return Collections.emptyList();
+        }
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        boolean[] visited = new boolean[graph.vertexCount()];
+        int[] queue = new int[graph.vertexCount()];
+        int head = 0, tail = 0;
         
-        visited.add(start);
-        queue.add(start);
+        visited[source] = true;
+        queue[tail++] = source;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                if (!visited[v]) {
+                    visited[v] = true;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return graph.dictionary().labels(queue, tail);
+    }
+    
+    // Hop count from start to every reachable vertex, via the direction-optimizing engine
+    public Map<String, Integer> depths(String start, ForkJoinPool pool) {
+        int source = graph.dictionary().find(start);
+        if (source < 0) {
+            return Collections.emptyMap();
+        }
+        DirectionOptimizingBfs engine = new DirectionOptimizingBfs(graph.vertexCount(), graph.offsets(), graph.targets(),
+                                                                   graph.inOffsets(), graph.inSources(), pool);
+        int[] depth = engine.run(source).depth;
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int v = 0; v < depth.length; v++) {
+            if (depth[v] >= 0) {
+                result.put(graph.dictionary().label(v), depth[v]);
+            }
+        }
+        return result;
+    }
+    
+    // Direction-optimizing BFS (Beamer et al.) over int vertex ids in CSR form.
+    // Each level runs either top-down (frontier vertices claim unvisited
+    // neighbours) or bottom-up (unvisited vertices look for any parent in the
+    // frontier), switching on frontier size. Frontier and visited sets are
+    // long[] bitsets and every level is split across a fork-join pool by
+    // 64-vertex words.
+    public static final class DirectionOptimizingBfs {
+        // Go bottom-up once frontier edges exceed unexplored edges / ALPHA,
+        // and back top-down once the frontier has fewer than n / BETA vertices
+        private static final int ALPHA = 14;
+        private static final int BETA = 24;
+        private static final int GRAIN_WORDS = 64;
         
-        while (!queue.isEmpty()) {
-            String vertex = queue.poll();
-            System.out.print(vertex + " ");
+        private final int vertexCount;
+        private final int[] offsets, targets;     // Out-edges
+        private final int[] inOffsets, inSources; // In-edges; pass the out-edges again for undirected graphs
+        private final ForkJoinPool pool;
+        
+        int topDownSteps, bottomUpSteps;
+        
+        public DirectionOptimizingBfs(int vertexCount, int[] offsets, int[] targets,
+                                      int[] inOffsets, int[] inSources, ForkJoinPool pool) {
+            this.vertexCount = vertexCount;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.inOffsets = inOffsets;
+            this.inSources = inSources;
+            this.pool = pool;
+        }
+        
+        // depth[v] and parent[v] are -1 for unreachable vertices; parent[source] is -1
+        public static final class Result {
+            public final int[] depth;
+            public final int[] parent;
             
-            for (String neighbor : graph.getOrDefault(vertex, Collections.emptyList())) {
-                if (!visited.contains(neighbor)) {
-                    visited.add(neighbor);
-                    queue.add(neighbor);
+            Result(int[] depth, int[] parent) {
+                this.depth = depth;
+                this.parent = parent;
+            }
+        }
+        
+        public Result run(int source) {
+            int words = (vertexCount + 63) >>> 6;
+            int[] depth = new int[vertexCount];
+            int[] parent = new int[vertexCount];
+            Arrays.fill(depth, -1);
+            Arrays.fill(parent, -1);
+            
+            AtomicLongArray visited = new AtomicLongArray(words);
+            AtomicLongArray frontier = new AtomicLongArray(words);
+            depth[source] = 0;
+            visited.set(source >>> 6, 1L << source);
+            frontier.set(source >>> 6, 1L << source);
+            
+            long frontierCount = 1;
+            long frontierEdges = offsets[source + 1] - offsets[source];
+            long unexploredEdges = offsets[vertexCount] - frontierEdges;
+            boolean bottomUp = false;
+            topDownSteps = 0;
+            bottomUpSteps = 0;
+            
+            for (int level = 0; frontierCount > 0; level++) {
+                if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                    bottomUp = true;
+                } else if (bottomUp && frontierCount < vertexCount / BETA) {
+                    bottomUp = false;
+                }
+                
+                AtomicLongArray next = new AtomicLongArray(words);
+                long[] counts = pool.invoke(new StepTask(this, bottomUp, level, 0, words,
+                                                         frontier, next, visited, depth, parent));
+                if (bottomUp) {
+                    bottomUpSteps++;
+                } else {
+                    topDownSteps++;
                 }
+                
+                frontier = next;
+                frontierCount = counts[0];
+                frontierEdges = counts[1];
+                unexploredEdges -= frontierEdges;
             }
+            return new Result(depth, parent);
         }
+        
+        // One BFS level over words [from, to). Returns {vertices added, their out-degree sum}.
+        private static final class StepTask extends RecursiveTask<long[]> {
+            private static final long serialVersionUID = 1L;
+            
+            private final DirectionOptimizingBfs bfs;
+            private final boolean bottomUp;
+            private final int level, from, to;
+            private final AtomicLongArray frontier, next, visited;
+            private final int[] depth, parent;
+            
+            StepTask(DirectionOptimizingBfs bfs, boolean bottomUp, int level, int from, int to,
+                     AtomicLongArray frontier, AtomicLongArray next, AtomicLongArray visited,
+                     int[] depth, int[] parent) {
+                this.bfs = bfs;
+                this.bottomUp = bottomUp;
+                this.level = level;
+                this.from = from;
+                this.to = to;
+                this.frontier = frontier;
+                this.next = next;
+                this.visited = visited;
+                this.depth = depth;
+                this.parent = parent;
+            }
+            
+            @Override
+            protected long[] compute() {
+                if (to - from > GRAIN_WORDS) {
+                    int mid = (from + to) >>> 1;
+                    StepTask right = new StepTask(bfs, bottomUp, level, mid, to, frontier, next, visited, depth, parent);
+                    right.fork();
+                    long[] left = new StepTask(bfs, bottomUp, level, from, mid, frontier, next, visited, depth, parent).compute();
+                    long[] other = right.join();
+                    left[0] += other[0];
+                    left[1] += other[1];
+                    return left;
+                }
+                return bottomUp ? bottomUp() : topDown();
+            }
+            
+            // Frontier vertices in these words claim their unvisited neighbours.
+            // Neighbours can live in any word, so claims go through CAS.
+            private long[] topDown() {
+                long added = 0, addedEdges = 0;
+                int[] offsets = bfs.offsets;
+                int[] targets = bfs.targets;
+                for (int w = from; w < to; w++) {
+                    long bits = frontier.get(w);
+                    while (bits != 0) {
+                        int u = (w << 6) + Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                        for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                            int v = targets[e];
+                            if (setBit(visited, v)) {
+                                depth[v] = level + 1;
+                                parent[v] = u;
+                                setBit(next, v);
+                                added++;
+                                addedEdges += offsets[v + 1] - offsets[v];
+                            }
+                        }
+                    }
+                }
+                return new long[] {added, addedEdges};
+            }
+            
+            // Unvisited vertices in these words look for any parent in the
+            // frontier. Each word belongs to one task, so plain writes suffice.
+            private long[] bottomUp() {
+                long added = 0, addedEdges = 0;
+                int[] offsets = bfs.offsets;
+                int[] inOffsets = bfs.inOffsets;
+                int[] inSources = bfs.inSources;
+                for (int w = from; w < to; w++) {
+                    long unvisited = ~visited.get(w);
+                    if (w == (bfs.vertexCount - 1) >>> 6 && (bfs.vertexCount & 63) != 0) {
+                        unvisited &= (1L << bfs.vertexCount) - 1; // Ignore bits past the last vertex
+                    }
+                    long found = 0;
+                    while (unvisited != 0) {
+                        int v = (w << 6) + Long.numberOfTrailingZeros(unvisited);
+                        unvisited &= unvisited - 1;
+                        for (int e = inOffsets[v]; e < inOffsets[v + 1]; e++) {
+                            int u = inSources[e];
+                            if ((frontier.get(u >>> 6) & (1L << u)) != 0) {
+                                depth[v] = level + 1;
+                                parent[v] = u;
+                                found |= 1L << v;
+                                added++;
+                                addedEdges += offsets[v + 1] - offsets[v];
+                                break;
+                            }
+                        }
+                    }
+                    if (found != 0) {
+                        next.set(w, found);
+                        visited.set(w, visited.get(w) | found);
+                    }
+                }
+                return new long[] {added, addedEdges};
+            }
+            
+            // Atomically set bit v; true if this call set it
+            private static boolean setBit(AtomicLongArray bits, int v) {
+                int w = v >>> 6;
+                long mask = 1L << v;
+                long old = bits.get(w);
+                while ((old & mask) == 0) {
+                    if (bits.compareAndSet(w, old, old | mask)) {
+                        return true;
+                    }
+                    old = bits.get(w);
+                }
+                return false;
+            }
+        }
+    }
+    
+    // Build CSR arrays for an undirected graph from parallel edge arrays
+    static int[][] undirectedCsr(int vertexCount, int[] from, int[] to) {
+        int[] offsets = new int[vertexCount + 1];
+        for (int i = 0; i < from.length; i++) {
+            offsets[from[i] + 1]++;
+            offsets[to[i] + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] next = Arrays.copyOf(offsets, vertexCount);
+        int[] targets = new int[offsets[vertexCount]];
+        for (int i = 0; i < from.length; i++) {
+            targets[next[from[i]]++] = to[i];
+            targets[next[to[i]]++] = from[i];
+        }
+        return new int[][] {offsets, targets};
     }
     
     public static void main(String[] args) {
@@ -45,5 +309,62 @@ public class BreadthFirstSearch {
         
         System.out.println("BFS traversal starting from vertex A:");
         bfsExample.bfs("A");
+        System.out.println("\nBFS traversal starting from vertex Q, which is not in the graph:");
+        bfsExample.bfs("Q");
+        System.out.println("\nDepths from A: " + bfsExample.depths("A", ForkJoinPool.commonPool()));
+        
+        // Several traversals can share one interned graph instead of loading it twice
+        LabeledGraph shared = new LabeledGraph();
+        shared.addEdge("X", "Y");
+        shared.addEdge("Y", "Z");
+        BreadthFirstSearch overShared = new BreadthFirstSearch(shared);
+        shared.addEdge("X", "W");
+        System.out.println("BFS over a shared graph from X: " + overShared.bfsOrder("X") +
+                           ", id of Z: " + shared.dictionary().find("Z"));
+        
+        // Direction-optimizing BFS on a low-diameter random graph
+        int n = 1_000_000;
+        int m = 8_000_000;
+        Random random = new Random(42);
+        int[] from = new int[m];
+        int[] to = new int[m];
+        for (int i = 0; i < m; i++) {
+            from[i] = random.nextInt(n);
+            to[i] = random.nextInt(n);
+        }
+        int[][] csr = undirectedCsr(n, from, to);
+        int[] offsets = csr[0];
+        int[] targets = csr[1];
+        
+        // Plain queue-based BFS for reference
+        long begin = System.nanoTime();
+        int[] expected = new int[n];
+        Arrays.fill(expected, -1);
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+        expected[0] = 0;
+        queue[tail++] = 0;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                if (expected[targets[e]] < 0) {
+                    expected[targets[e]] = expected[u] + 1;
+                    queue[tail++] = targets[e];
+                }
+            }
+        }
+        long plainTime = System.nanoTime() - begin;
+        
+        DirectionOptimizingBfs engine = new DirectionOptimizingBfs(n, offsets, targets, offsets, targets,
+                                                                   ForkJoinPool.commonPool());
+        engine.run(0); // Warm up
+        begin = System.nanoTime();
+        DirectionOptimizingBfs.Result result = engine.run(0);
+        long fastTime = System.nanoTime() - begin;
+        
+        System.out.println("\n\n" + n + " vertices / " + m + " edges: queue BFS " + plainTime / 1_000_000 + " ms, " +
+                           "direction-optimizing " + fastTime / 1_000_000 + " ms (" + engine.topDownSteps +
+                           " top-down, " + engine.bottomUpSteps + " bottom-up levels), same depths: " +
+                           Arrays.equals(expected, result.depth));
     }
 }
\ No newline at end of file
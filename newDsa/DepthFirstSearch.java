@@ -1,33 +1,328 @@
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class DepthFirstSearch {
-    private Map<String, List<String>> graph;
+    private final LabeledGraph graph;
     
     public DepthFirstSearch() {
-        graph = new HashMap<>();
+        this(new LabeledGraph());
+    }
+    
+    // Traverse an existing graph; edges added here or through graph are seen by both
+    public DepthFirstSearch(LabeledGraph graph) {
+        this.graph = graph;
     }
     
     public void addEdge(String source, String destination) {
-        graph.computeIfAbsent(source, k -> new ArrayList<>()).add(destination);
-        graph.computeIfAbsent(destination, k -> new ArrayList<>()); // Ensure the destination is in the graph
+        graph.addEdge(source, destination);
     }
     
     public void dfs(String start) {
-        Set<String> visited = new HashSet<>();
-        dfsUtil(start, visited);
+        if (graph.dictionary().find(start) < 0) {
+            System.out.print(start + " "); // An unknown start is still printed, as a traversal of one vertex
+            return;
+        }
+        preorder(start).forEachRemaining(vertex -> System.out.print(vertex + " "));
     }
     
-    private void dfsUtil(String vertex, Set<String> visited) {
-        // Mark the current node as visited and print it
-        visited.add(vertex);
-        System.out.print(vertex + " ");
+    // Receives DFS events; returning false from either callback stops the traversal.
+    // Vertices are int ids; label(int) turns them back into the names given to addEdge.
+    public interface Visitor {
+        default boolean enter(int vertex, int parent) {
+            return true;
+        }
         
-        // Recur for all the vertices adjacent to this vertex
-        for (String neighbor : graph.getOrDefault(vertex, Collections.emptyList())) {
-            if (!visited.contains(neighbor)) {
-                dfsUtil(neighbor, visited);
+        default boolean exit(int vertex) {
+            return true;
+        }
+    }
+    
+    // Runs the visitor from start; returns false if the visitor stopped early
+    public boolean traverse(String start, Visitor visitor) {
+        int vertex = graph.dictionary().find(start);
+        return vertex < 0 || traverse(graph.offsets(), graph.targets(), vertex, visitor);
+    }
+    
+    // The name of a vertex id passed to a Visitor
+    public String label(int vertex) {
+        return graph.dictionary().label(vertex);
+    }
+    
+    // The id a Visitor sees for label, or -1 if the label is not in the graph
+    public int id(String label) {
+        return graph.dictionary().find(label);
+    }
+    
+    public static boolean traverse(int[] offsets, int[] targets, int start, Visitor visitor) {
+        Cursor cursor = new Cursor(offsets, targets, start);
+        while (cursor.advance()) {
+            boolean proceed = cursor.isExit() ? visitor.exit(cursor.vertex()) : visitor.enter(cursor.vertex(), cursor.parent());
+            if (!proceed) {
+                return false;
             }
         }
+        return true;
+    }
+    
+    // Lazy pre-order; stopping iteration early leaves the rest of the graph untouched
+    public Iterator<String> preorder(String start) {
+        int vertex = graph.dictionary().find(start);
+        if (vertex < 0) {
+            return Collections.emptyIterator();
+        }
+        PrimitiveIterator.OfInt ids = preorder(graph.offsets(), graph.targets(), vertex);
+        return new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return ids.hasNext();
+            }
+            
+            @Override
+            public String next() {
+                return graph.dictionary().label(ids.nextInt());
+            }
+        };
+    }
+    
+    public Stream<String> stream(String start) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(preorder(start),
+            Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+    
+    public static PrimitiveIterator.OfInt preorder(int[] offsets, int[] targets, int start) {
+        Cursor cursor = new Cursor(offsets, targets, start);
+        return new PrimitiveIterator.OfInt() {
+            private boolean ready;
+            
+            @Override
+            public boolean hasNext() {
+                while (!ready && cursor.advance()) {
+                    ready = !cursor.isExit();
+                }
+                return ready;
+            }
+            
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ready = false;
+                return cursor.vertex();
+            }
+        };
+    }
+    
+    public static IntStream preorderStream(int[] offsets, int[] targets, int start) {
+        return StreamSupport.intStream(Spliterators.spliteratorUnknownSize(preorder(offsets, targets, start),
+            Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+    
+    // Explicit-stack DFS over CSR arrays. Each advance() produces one event:
+    // entering a newly discovered vertex or exiting a finished one.
+    public static final class Cursor {
+        private final int[] offsets, targets;
+        private final boolean[] visited;
+        private int[] stack = new int[16]; // Vertices on the current DFS path
+        private int[] edge = new int[16];  // Next out-edge to try for each of them
+        private int depth;
+        private int start;
+        
+        private int vertex = -1, parent = -1;
+        private boolean exit;
+        
+        public Cursor(int[] offsets, int[] targets, int start) {
+            if (start < 0 || start >= offsets.length - 1) {
+                throw new IllegalArgumentException("Unknown start vertex " + start);
+            }
+            this.offsets = offsets;
+            this.targets = targets;
+            this.visited = new boolean[offsets.length - 1];
+            this.start = start;
+        }
+        
+        public boolean advance() {
+            if (start >= 0) {
+                push(start, -1);
+                start = -1;
+                return true;
+            }
+            while (depth > 0) {
+                int top = stack[depth - 1];
+                if (edge[depth - 1] < offsets[top + 1]) {
+                    int next = targets[edge[depth - 1]++];
+                    if (!visited[next]) {
+                        push(next, top);
+                        return true;
+                    }
+                } else {
+                    depth--;
+                    vertex = top;
+                    parent = depth > 0 ? stack[depth - 1] : -1;
+                    exit = true;
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        private void push(int v, int from) {
+            if (depth == stack.length) {
+                stack = Arrays.copyOf(stack, depth * 2);
+                edge = Arrays.copyOf(edge, depth * 2);
+            }
+            visited[v] = true;
+            stack[depth] = v;
+            edge[depth] = offsets[v];
+            depth++;
+            vertex = v;
+            parent = from;
+            exit = false;
+        }
+        
+        public int vertex() {
+            return vertex;
+        }
+        
+        // DFS-tree parent of vertex(), or -1 for the start vertex
+        public int parent() {
+            return parent;
+        }
+        
+        public boolean isExit() {
+            return exit;
+        }
+        
+        // Vertices on the current DFS path, including the one just entered
+        public int depth() {
+            return depth;
+        }
+    }
+    
+    // Strongly connected components as lists of labels, in reverse topological order
+    public List<List<String>> stronglyConnectedComponents() {
+        StronglyConnectedComponents scc = StronglyConnectedComponents.compute(graph.offsets(), graph.targets());
+        List<List<String>> result = new ArrayList<>(scc.count);
+        for (int c = 0; c < scc.count; c++) {
+            result.add(new ArrayList<>());
+        }
+        for (int v = 0; v < scc.component.length; v++) {
+            result.get(scc.component[v]).add(graph.dictionary().label(v));
+        }
+        return result;
+    }
+    
+    // Iterative Tarjan SCC over CSR arrays, using only preallocated int arrays.
+    // Components are numbered in the order Tarjan completes them, which is a
+    // reverse topological order of the condensation: every condensation edge
+    // goes from a higher component id to a lower one.
+    public static final class StronglyConnectedComponents {
+        public final int count;
+        public final int[] component;   // Component id of each vertex
+        public final int[] dagOffsets;  // Condensation DAG in CSR form, without duplicate edges
+        public final int[] dagTargets;
+        
+        private StronglyConnectedComponents(int count, int[] component, int[] dagOffsets, int[] dagTargets) {
+            this.count = count;
+            this.component = component;
+            this.dagOffsets = dagOffsets;
+            this.dagTargets = dagTargets;
+        }
+        
+        public static StronglyConnectedComponents compute(int[] offsets, int[] targets) {
+            int n = offsets.length - 1;
+            int[] index = new int[n];
+            int[] lowlink = new int[n];
+            int[] component = new int[n];
+            int[] stack = new int[n];      // Tarjan's vertex stack
+            int[] callStack = new int[n];  // Explicit DFS path
+            int[] edge = new int[n];       // Next out-edge for each entry on the DFS path
+            Arrays.fill(index, -1);
+            Arrays.fill(component, -1);
+            int nextIndex = 0, top = 0, count = 0;
+            
+            for (int root = 0; root < n; root++) {
+                if (index[root] >= 0) {
+                    continue;
+                }
+                int depth = 0;
+                index[root] = lowlink[root] = nextIndex++;
+                stack[top++] = root;
+                callStack[depth] = root;
+                edge[depth++] = offsets[root];
+                
+                while (depth > 0) {
+                    int v = callStack[depth - 1];
+                    if (edge[depth - 1] < offsets[v + 1]) {
+                        int w = targets[edge[depth - 1]++];
+                        if (index[w] < 0) {
+                            index[w] = lowlink[w] = nextIndex++;
+                            stack[top++] = w;
+                            callStack[depth] = w;
+                            edge[depth++] = offsets[w];
+                        } else if (component[w] < 0 && index[w] < lowlink[v]) {
+                            lowlink[v] = index[w]; // w is still on Tarjan's stack
+                        }
+                        continue;
+                    }
+                    
+                    depth--;
+                    if (lowlink[v] == index[v]) {
+                        int w;
+                        do {
+                            w = stack[--top];
+                            component[w] = count;
+                        } while (w != v);
+                        count++;
+                    }
+                    if (depth > 0) {
+                        int u = callStack[depth - 1];
+                        lowlink[u] = Math.min(lowlink[u], lowlink[v]);
+                    }
+                }
+            }
+            
+            // Group vertices by component, reusing the scratch arrays
+            int[] start = new int[count + 1];
+            for (int v = 0; v < n; v++) {
+                start[component[v] + 1]++;
+            }
+            for (int c = 0; c < count; c++) {
+                start[c + 1] += start[c];
+            }
+            int[] members = stack;
+            int[] fill = Arrays.copyOf(start, count);
+            for (int v = 0; v < n; v++) {
+                members[fill[component[v]]++] = v;
+            }
+            
+            // Condensation edges, deduplicated by remembering the last component that added each target
+            int[] lastSeen = index;
+            Arrays.fill(lastSeen, 0, count, -1);
+            int[] dagOffsets = new int[count + 1];
+            int[] dagTargets = new int[16];
+            int edges = 0;
+            for (int c = 0; c < count; c++) {
+                for (int i = start[c]; i < start[c + 1]; i++) {
+                    int v = members[i];
+                    for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                        int d = component[targets[e]];
+                        if (d != c && lastSeen[d] != c) {
+                            lastSeen[d] = c;
+                            if (edges == dagTargets.length) {
+                                dagTargets = Arrays.copyOf(dagTargets, edges * 2);
+                            }
+                            dagTargets[edges++] = d;
+                        }
+                    }
+                }
+                dagOffsets[c + 1] = edges;
+            }
+            return new StronglyConnectedComponents(count, component, dagOffsets, Arrays.copyOf(dagTargets, edges));
+        }
     }
     
     public static void main(String[] args) {
@@ -43,5 +338,101 @@ public class DepthFirstSearch {
         
         System.out.println("DFS traversal starting from vertex A:");
         dfsExample.dfs("A");
+        System.out.println("\nDFS traversal starting from vertex Q, which is not in the graph:");
+        dfsExample.dfs("Q");
+        System.out.println();
+        
+        // Post-order through the visitor, and a lazily limited stream
+        List<String> postorder = new ArrayList<>();
+        dfsExample.traverse("A", new Visitor() {
+            @Override
+            public boolean exit(int vertex) {
+                postorder.add(dfsExample.label(vertex));
+                return true;
+            }
+        });
+        System.out.println("Post-order: " + postorder);
+        
+        // Tree edges, mapping the visitor's ids back to labels through the public accessors
+        List<String> treeEdges = new ArrayList<>();
+        int root = dfsExample.id("A");
+        dfsExample.traverse("A", new Visitor() {
+            @Override
+            public boolean enter(int vertex, int parent) {
+                if (vertex != root) {
+                    treeEdges.add(dfsExample.label(parent) + "->" + dfsExample.label(vertex));
+                }
+                return true;
+            }
+        });
+        System.out.println("Tree edges: " + treeEdges);
+        System.out.println("First three: " + dfsExample.stream("A").limit(3).collect(Collectors.toList()));
+        
+        dfsExample.addEdge("F", "B");
+        System.out.println("SCCs after adding F -> B: " + dfsExample.stronglyConnectedComponents());
+        
+        // A path of millions of vertices would overflow the stack if recursed on
+        int n = 5_000_000;
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[n - 1];
+        for (int v = 0; v < n - 1; v++) {
+            offsets[v + 1] = v + 1;
+            targets[v] = v + 1;
+        }
+        offsets[n] = n - 1;
+        long begin = System.nanoTime();
+        int[] maxDepth = new int[1];
+        traverse(offsets, targets, 0, new Visitor() {
+            private int depth;
+            
+            @Override
+            public boolean enter(int vertex, int parent) {
+                maxDepth[0] = Math.max(maxDepth[0], ++depth);
+                return true;
+            }
+            
+            @Override
+            public boolean exit(int vertex) {
+                depth--;
+                return true;
+            }
+        });
+        long elapsed = System.nanoTime() - begin;
+        System.out.println("Path of " + n + " vertices: depth " + maxDepth[0] + " in " + elapsed / 1_000_000 + " ms");
+        
+        // Early stop: find vertex 1000 without touching the rest of the path
+        begin = System.nanoTime();
+        boolean completed = traverse(offsets, targets, 0, new Visitor() {
+            @Override
+            public boolean enter(int vertex, int parent) {
+                return vertex != 1000;
+            }
+        });
+        elapsed = System.nanoTime() - begin;
+        System.out.println("Stopped at vertex 1000: " + !completed + " in " + elapsed / 1000 + " us, " +
+                           "stream sum of first 10 ids: " + preorderStream(offsets, targets, 0).limit(10).sum());
+        
+        // SCC benchmark on random directed graphs with average out-degree 5
+        Random random = new Random(42);
+        for (int size = 10_000; size <= 2_000_000; size *= 10) {
+            int edgeCount = size * 5;
+            int[] graphOffsets = new int[size + 1];
+            int[] graphTargets = new int[edgeCount];
+            for (int v = 0; v < size; v++) {
+                graphOffsets[v + 1] = graphOffsets[v] + 5;
+            }
+            for (int e = 0; e < edgeCount; e++) {
+                graphTargets[e] = random.nextInt(size);
+            }
+            begin = System.nanoTime();
+            StronglyConnectedComponents scc = StronglyConnectedComponents.compute(graphOffsets, graphTargets);
+            elapsed = System.nanoTime() - begin;
+            System.out.println("SCC on " + size + " vertices / " + edgeCount + " edges: " + scc.count + " components, " +
+                               scc.dagTargets.length + " condensation edges, " + elapsed / 1_000_000 + " ms");
+        }
+        begin = System.nanoTime();
+        StronglyConnectedComponents pathScc = StronglyConnectedComponents.compute(offsets, targets);
+        elapsed = System.nanoTime() - begin;
+        System.out.println("SCC on the " + n + "-vertex path: " + pathScc.count + " components in " + elapsed / 1_000_000 + " ms");
     }
 }
\ No newline at end of file
@@ -0,0 +1,1072 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Single-source shortest paths on a directed graph with non-negative integer
+// weights. Vertices are 0..vertices-1, like TopologicalSort and UnionFind.
+// Edges are kept in primitive arrays and packed into compressed-sparse-row
+// form before the first query, so no object is allocated per edge.
+public class DijkstraAlgorithm {
+    public static final long INFINITY = Long.MAX_VALUE;
+    
+    public enum Mode {
+        BINARY_HEAP,   // Indexed binary heap with decrease-key, any weights
+        RADIX_HEAP,    // Monotone radix heap, fastest for small integer weights
+        DELTA_STEPPING // Parallel buckets on the common fork-join pool
+    }
+    
+    private final int vertices;
+    
+    // Edges as added, in insertion order
+    private int[] edgeFrom = new int[16];
+    private int[] edgeTo = new int[16];
+    private int[] edgeWeight = new int[16];
+    private int edgeCount;
+    
+    // CSR form: edges of u are offsets[u] .. offsets[u + 1] - 1
+    private int[] offsets;
+    private int[] targets;
+    private int[] weights;
+    
+    public DijkstraAlgorithm(int vertices) {
+        this.vertices = vertices;
+    }
+    
+    // Add a directed edge from source to destination
+    public void addEdge(int source, int destination, int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Negative weight " + weight + " on edge " + source + " -> " + destination);
+        }
+        if (edgeCount == edgeFrom.length) {
+            int capacity = edgeCount * 2;
+            edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+            edgeTo = Arrays.copyOf(edgeTo, capacity);
+            edgeWeight = Arrays.copyOf(edgeWeight, capacity);
+        }
+        edgeFrom[edgeCount] = source;
+        edgeTo[edgeCount] = destination;
+        edgeWeight[edgeCount] = weight;
+        edgeCount++;
+        offsets = null; // Rebuild the CSR arrays on the next query
+    }
+    
+    public int getVertexCount() {
+        return vertices;
+    }
+    
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+    
+    // Pack the edge list into CSR arrays with a counting sort on the source
+    private void buildCsr() {
+        if (offsets != null) {
+            return;
+        }
+        int[] start = new int[vertices + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            start[edgeFrom[i] + 1]++;
+        }
+        for (int v = 0; v < vertices; v++) {
+            start[v + 1] += start[v];
+        }
+        
+        int[] next = Arrays.copyOf(start, vertices);
+        targets = new int[edgeCount];
+        weights = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            int slot = next[edgeFrom[i]]++;
+            targets[slot] = edgeTo[i];
+            weights[slot] = edgeWeight[i];
+        }
+        offsets = start;
+    }
+    
+    // Distances and predecessors from one source
+    public static class Result {
+        public final int source;
+        public final long[] distance;   // INFINITY if unreachable
+        public final int[] predecessor; // -1 for the source and unreachable vertices
+        
+        Result(int source, long[] distance, int[] predecessor) {
+            this.source = source;
+            this.distance = distance;
+            this.predecessor = predecessor;
+        }
+        
+        // Vertices on the shortest path from the source, or empty if unreachable
+        public List<Integer> pathTo(int target) {
+            if (distance[target] == INFINITY) {
+                return Collections.emptyList();
+            }
+            List<Integer> path = new ArrayList<>();
+            for (int v = target; v != -1; v = predecessor[v]) {
+                path.add(v);
+            }
+            Collections.reverse(path);
+            return path;
+        }
+    }
+    
+    // Preprocess the current edges into a contraction hierarchy
+    public ContractionHierarchy buildContractionHierarchy() {
+        buildCsr();
+        return ContractionHierarchy.build(vertices, offsets, targets, weights);
+    }
+    
+    public Result shortestPaths(int source) {
+        return shortestPaths(source, Mode.BINARY_HEAP);
+    }
+    
+    public Result shortestPaths(int source, Mode mode) {
+        if (mode == Mode.DELTA_STEPPING) {
+            return shortestPathsDeltaStepping(source, defaultDelta(), ForkJoinPool.commonPool());
+        }
+        buildCsr();
+        long[] distance = new long[vertices];
+        int[] predecessor = new int[vertices];
+        Arrays.fill(distance, INFINITY);
+        Arrays.fill(predecessor, -1);
+        distance[source] = 0;
+        
+        if (mode == Mode.BINARY_HEAP) {
+            runBinaryHeap(source, distance, predecessor);
+        } else {
+            runRadixHeap(source, distance, predecessor);
+        }
+        return new Result(source, distance, predecessor);
+    }
+    
+    private void runBinaryHeap(int source, long[] distance, int[] predecessor) {
+        IndexedHeap heap = new IndexedHeap(vertices);
+        heap.pushOrDecrease(source, 0);
+        
+        while (!heap.isEmpty()) {
+            int u = heap.pop();
+            long du = distance[u];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                long candidate = du + weights[e];
+                if (candidate < distance[v]) {
+                    distance[v] = candidate;
+                    predecessor[v] = u;
+                    heap.pushOrDecrease(v, candidate);
+                }
+            }
+        }
+    }
+    
+    private void runRadixHeap(int source, long[] distance, int[] predecessor) {
+        RadixHeap heap = new RadixHeap();
+        boolean[] settled = new boolean[vertices];
+        heap.push(source, 0);
+        
+        while (!heap.isEmpty()) {
+            int u = heap.pop();
+            if (settled[u]) {
+                continue; // Older copy of a vertex that was pushed again
+            }
+            settled[u] = true;
+            long du = distance[u];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                long candidate = du + weights[e];
+                if (candidate < distance[v]) {
+                    distance[v] = candidate;
+                    predecessor[v] = u;
+                    heap.push(v, candidate);
+                }
+            }
+        }
+    }
+    
+    // Parallel delta-stepping. Vertices are grouped into buckets of width
+    // delta by tentative distance. Each bucket is settled by relaxing light
+    // edges (weight <= delta) of its vertices in parallel rounds until it
+    // stops changing, then relaxing their heavy edges once. Distances are
+    // lowered with a CAS loop, so the result equals sequential Dijkstra.
+    public Result shortestPathsDeltaStepping(int source, long delta, ForkJoinPool pool) {
+        buildCsr();
+        AtomicLongArray dist = new AtomicLongArray(vertices);
+        for (int v = 0; v < vertices; v++) {
+            dist.set(v, INFINITY);
+        }
+        dist.set(source, 0);
+        
+        TreeMap<Long, IntList> buckets = new TreeMap<>();
+        buckets.computeIfAbsent(0L, k -> new IntList()).add(source);
+        
+        // Stamps that de-duplicate vertices per relaxation round and per bucket
+        int[] roundMark = new int[vertices];
+        int[] bucketMark = new int[vertices];
+        int round = 0;
+        int bucketCount = 0;
+        
+        while (!buckets.isEmpty()) {
+            Map.Entry<Long, IntList> first = buckets.pollFirstEntry();
+            long index = first.getKey();
+            IntList entries = first.getValue();
+            bucketCount++;
+            round++;
+            
+            // Drop entries whose distance has since moved to an earlier bucket
+            IntList frontier = new IntList();
+            for (int i = 0; i < entries.size; i++) {
+                int v = entries.items[i];
+                if (dist.get(v) / delta == index && roundMark[v] != round) {
+                    roundMark[v] = round;
+                    frontier.add(v);
+                }
+            }
+            
+            IntList settled = new IntList();
+            while (frontier.size > 0) {
+                for (int i = 0; i < frontier.size; i++) {
+                    int v = frontier.items[i];
+                    if (bucketMark[v] != bucketCount) {
+                        bucketMark[v] = bucketCount;
+                        settled.add(v);
+                    }
+                }
+                IntList improved = pool.invoke(new FrontierTask(this, frontier, 0, frontier.size,
+                                                                FrontierTask.LIGHT, delta, dist, null, null));
+                
+                // Vertices that stay in this bucket are relaxed again next round
+                round++;
+                frontier = new IntList();
+                for (int i = 0; i < improved.size; i++) {
+                    int v = improved.items[i];
+                    long bucket = dist.get(v) / delta;
+                    if (bucket != index) {
+                        buckets.computeIfAbsent(bucket, k -> new IntList()).add(v);
+                    } else if (roundMark[v] != round) {
+                        roundMark[v] = round;
+                        frontier.add(v);
+                    }
+                }
+            }
+            
+            // Bucket is final: heavy edges can only reach later buckets
+            IntList improved = pool.invoke(new FrontierTask(this, settled, 0, settled.size,
+                                                            FrontierTask.HEAVY, delta, dist, null, null));
+            for (int i = 0; i < improved.size; i++) {
+                int v = improved.items[i];
+                buckets.computeIfAbsent(dist.get(v) / delta, k -> new IntList()).add(v);
+            }
+        }
+        
+        long[] distance = new long[vertices];
+        for (int v = 0; v < vertices; v++) {
+            distance[v] = dist.get(v);
+        }
+        return new Result(source, distance, shortestPathTree(source, distance, pool));
+    }
+    
+    // A reasonable delta: the heaviest weight spread over the average out-degree
+    public long defaultDelta() {
+        buildCsr();
+        long maxWeight = 1;
+        for (int i = 0; i < edgeCount; i++) {
+            maxWeight = Math.max(maxWeight, weights[i]);
+        }
+        long averageDegree = Math.max(1, edgeCount / Math.max(1, vertices));
+        return Math.max(1, maxWeight / averageDegree);
+    }
+    
+    // Predecessors from final distances: a parallel BFS from the source over
+    // tight edges (dist[u] + w == dist[v]). Each vertex is claimed once by CAS,
+    // so zero-weight cycles cannot produce predecessor loops.
+    private int[] shortestPathTree(int source, long[] distance, ForkJoinPool pool) {
+        AtomicIntegerArray parent = new AtomicIntegerArray(vertices);
+        for (int v = 0; v < vertices; v++) {
+            parent.set(v, -1);
+        }
+        parent.set(source, source);
+        
+        IntList frontier = new IntList();
+        frontier.add(source);
+        while (frontier.size > 0) {
+            frontier = pool.invoke(new FrontierTask(this, frontier, 0, frontier.size,
+                                                    FrontierTask.TREE, 0, null, distance, parent));
+        }
+        
+        int[] predecessor = new int[vertices];
+        for (int v = 0; v < vertices; v++) {
+            predecessor[v] = parent.get(v);
+        }
+        predecessor[source] = -1;
+        return predecessor;
+    }
+    
+    // Processes a slice of a frontier in parallel and returns the vertices it
+    // changed: lowered distances for LIGHT and HEAVY, claimed parents for TREE
+    private static final class FrontierTask extends RecursiveTask<IntList> {
+        private static final long serialVersionUID = 1L;
+        
+        static final int LIGHT = 0, HEAVY = 1, TREE = 2;
+        private static final int GRAIN = 256;
+        
+        private final DijkstraAlgorithm graph;
+        private final IntList frontier;
+        private final int from, to;
+        private final int kind;
+        private final long delta;
+        private final AtomicLongArray dist;       // LIGHT and HEAVY
+        private final long[] distance;            // TREE
+        private final AtomicIntegerArray parent;  // TREE
+        
+        FrontierTask(DijkstraAlgorithm graph, IntList frontier, int from, int to, int kind, long delta,
+                     AtomicLongArray dist, long[] distance, AtomicIntegerArray parent) {
+            this.graph = graph;
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+            this.kind = kind;
+            this.delta = delta;
+            this.dist = dist;
+            this.distance = distance;
+            this.parent = parent;
+        }
+        
+        @Override
+        protected IntList compute() {
+            if (to - from > GRAIN) {
+                int mid = (from + to) >>> 1;
+                FrontierTask right = new FrontierTask(graph, frontier, mid, to, kind, delta, dist, distance, parent);
+                right.fork();
+                IntList left = new FrontierTask(graph, frontier, from, mid, kind, delta, dist, distance, parent).compute();
+                left.addAll(right.join());
+                return left;
+            }
+            
+            IntList out = new IntList();
+            int[] offsets = graph.offsets;
+            int[] targets = graph.targets;
+            int[] weights = graph.weights;
+            for (int i = from; i < to; i++) {
+                int u = frontier.items[i];
+                if (kind == TREE) {
+                    for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                        int v = targets[e];
+                        if (distance[u] + weights[e] == distance[v] && parent.compareAndSet(v, -1, u)) {
+                            out.add(v);
+                        }
+                    }
+                    continue;
+                }
+                
+                long du = dist.get(u);
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int w = weights[e];
+                    if ((w <= delta) != (kind == LIGHT)) {
+                        continue;
+                    }
+                    int v = targets[e];
+                    long candidate = du + w;
+                    long old = dist.get(v);
+                    while (candidate < old) {
+                        if (dist.compareAndSet(v, old, candidate)) {
+                            out.add(v);
+                            break;
+                        }
+                        old = dist.get(v);
+                    }
+                }
+            }
+            return out;
+        }
+    }
+    
+    // Growable int array used for frontiers and buckets
+    private static final class IntList {
+        int[] items = new int[8];
+        int size;
+        
+        void add(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+        
+        void addAll(IntList other) {
+            if (size + other.size > items.length) {
+                items = Arrays.copyOf(items, Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.items, 0, items, size, other.size);
+            size += other.size;
+        }
+    }
+    
+    // Binary min-heap of vertices keyed by distance, with decrease-key
+    private static final class IndexedHeap {
+        private final int[] heap;
+        private final long[] keys;
+        private final int[] position; // Slot of each vertex in heap, -1 if absent
+        private int size;
+        
+        IndexedHeap(int capacity) {
+            heap = new int[capacity];
+            keys = new long[capacity];
+            position = new int[capacity];
+            Arrays.fill(position, -1);
+        }
+        
+        boolean isEmpty() {
+            return size == 0;
+        }
+        
+        long peekKey() {
+            return keys[heap[0]];
+        }
+        
+        // Drop every remaining vertex so the heap can be reused
+        void clear() {
+            for (int i = 0; i < size; i++) {
+                position[heap[i]] = -1;
+            }
+            size = 0;
+        }
+        
+        void pushOrDecrease(int vertex, long key) {
+            int slot = position[vertex];
+            if (slot < 0) {
+                slot = size++;
+                heap[slot] = vertex;
+                position[vertex] = slot;
+            }
+            keys[vertex] = key;
+            siftUp(slot);
+        }
+        
+        int pop() {
+            int top = heap[0];
+            position[top] = -1;
+            size--;
+            if (size > 0) {
+                heap[0] = heap[size];
+                position[heap[0]] = 0;
+                siftDown(0);
+            }
+            return top;
+        }
+        
+        private void siftUp(int slot) {
+            int vertex = heap[slot];
+            long key = keys[vertex];
+            while (slot > 0) {
+                int parent = (slot - 1) >>> 1;
+                if (keys[heap[parent]] <= key) {
+                    break;
+                }
+                heap[slot] = heap[parent];
+                position[heap[slot]] = slot;
+                slot = parent;
+            }
+            heap[slot] = vertex;
+            position[vertex] = slot;
+        }
+        
+        private void siftDown(int slot) {
+            int vertex = heap[slot];
+            long key = keys[vertex];
+            int half = size >>> 1;
+            while (slot < half) {
+                int child = 2 * slot + 1;
+                if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                    child++;
+                }
+                if (key <= keys[heap[child]]) {
+                    break;
+                }
+                heap[slot] = heap[child];
+                position[heap[slot]] = slot;
+                slot = child;
+            }
+            heap[slot] = vertex;
+            position[vertex] = slot;
+        }
+    }
+    
+    // Monotone radix heap: bucket i holds keys whose highest bit differing
+    // from the last popped key is bit i - 1. Each entry moves to a lower
+    // bucket at most 64 times, and popped keys never decrease, which
+    // Dijkstra guarantees. Duplicates are allowed; callers skip stale ones.
+    private static final class RadixHeap {
+        private final int[][] bucketVertices = new int[65][];
+        private final long[][] bucketKeys = new long[65][];
+        private final int[] bucketSize = new int[65];
+        private long last;
+        private int size;
+        
+        RadixHeap() {
+            for (int i = 0; i < 65; i++) {
+                bucketVertices[i] = new int[4];
+                bucketKeys[i] = new long[4];
+            }
+        }
+        
+        boolean isEmpty() {
+            return size == 0;
+        }
+        
+        void push(int vertex, long key) {
+            add(bucketOf(key), vertex, key);
+            size++;
+        }
+        
+        int pop() {
+            if (bucketSize[0] == 0) {
+                int b = 1;
+                while (bucketSize[b] == 0) {
+                    b++;
+                }
+                
+                // The smallest key in the first non-empty bucket becomes the new
+                // reference, and every entry in that bucket moves further down
+                int count = bucketSize[b];
+                int[] vertices = bucketVertices[b];
+                long[] keys = bucketKeys[b];
+                long min = keys[0];
+                for (int i = 1; i < count; i++) {
+                    min = Math.min(min, keys[i]);
+                }
+                last = min;
+                bucketSize[b] = 0;
+                for (int i = 0; i < count; i++) {
+                    add(bucketOf(keys[i]), vertices[i], keys[i]);
+                }
+            }
+            size--;
+            return bucketVertices[0][--bucketSize[0]];
+        }
+        
+        private int bucketOf(long key) {
+            return key == last ? 0 : 64 - Long.numberOfLeadingZeros(key ^ last);
+        }
+        
+        private void add(int bucket, int vertex, long key) {
+            int n = bucketSize[bucket];
+            if (n == bucketVertices[bucket].length) {
+                bucketVertices[bucket] = Arrays.copyOf(bucketVertices[bucket], n * 2);
+                bucketKeys[bucket] = Arrays.copyOf(bucketKeys[bucket], n * 2);
+            }
+            bucketVertices[bucket][n] = vertex;
+            bucketKeys[bucket][n] = key;
+            bucketSize[bucket] = n + 1;
+        }
+    }
+    
+    // Contraction hierarchy for fast point-to-point distance queries.
+    // Preprocessing contracts vertices one by one in order of importance and
+    // adds a shortcut u -> x whenever removing v would lose the only shortest
+    // path u -> v -> x. A query then runs Dijkstra forward from the source and
+    // backward from the target, each only along edges that go up in the order.
+    public static class ContractionHierarchy {
+        private static final int MAGIC = 0x43484731; // "CHG1"
+        
+        private final int vertices;
+        
+        // Upward edges for the forward search, and reversed upward edges for
+        // the backward search, both in CSR form
+        private final int[] upOffsets, upTargets, upWeights;
+        private final int[] downOffsets, downTargets, downWeights;
+        
+        // Query scratch space, reused between queries via a generation stamp
+        private final long[] forwardDist, backwardDist;
+        private final int[] forwardStamp, backwardStamp;
+        private int generation;
+        private final IndexedHeap forwardHeap, backwardHeap;
+        
+        private ContractionHierarchy(int vertices, int[] upOffsets, int[] upTargets, int[] upWeights,
+                                     int[] downOffsets, int[] downTargets, int[] downWeights) {
+            this.vertices = vertices;
+            this.upOffsets = upOffsets;
+            this.upTargets = upTargets;
+            this.upWeights = upWeights;
+            this.downOffsets = downOffsets;
+            this.downTargets = downTargets;
+            this.downWeights = downWeights;
+            forwardDist = new long[vertices];
+            backwardDist = new long[vertices];
+            forwardStamp = new int[vertices];
+            backwardStamp = new int[vertices];
+            forwardHeap = new IndexedHeap(vertices);
+            backwardHeap = new IndexedHeap(vertices);
+        }
+        
+        public int getShortcutEdgeCount() {
+            return upTargets.length + downTargets.length;
+        }
+        
+        // Shortest distance from source to target, or INFINITY.
+        // Not thread-safe: the search buffers belong to the instance.
+        public long distance(int source, int target) {
+            if (source == target) {
+                return 0;
+            }
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(forwardStamp, 0);
+                Arrays.fill(backwardStamp, 0);
+                generation = 1;
+            }
+            
+            forwardStamp[source] = generation;
+            forwardDist[source] = 0;
+            forwardHeap.pushOrDecrease(source, 0);
+            backwardStamp[target] = generation;
+            backwardDist[target] = 0;
+            backwardHeap.pushOrDecrease(target, 0);
+            
+            long best = INFINITY;
+            while (!forwardHeap.isEmpty() || !backwardHeap.isEmpty()) {
+                long forwardMin = forwardHeap.isEmpty() ? INFINITY : forwardHeap.peekKey();
+                long backwardMin = backwardHeap.isEmpty() ? INFINITY : backwardHeap.peekKey();
+                if (Math.min(forwardMin, backwardMin) >= best) {
+                    break; // Neither side can still improve the meeting point
+                }
+                if (forwardMin <= backwardMin) {
+                    best = expand(forwardHeap, upOffsets, upTargets, upWeights,
+                                  downOffsets, downTargets, downWeights, forwardDist, forwardStamp,
+                                  backwardDist, backwardStamp, best);
+                } else {
+                    best = expand(backwardHeap, downOffsets, downTargets, downWeights,
+                                  upOffsets, upTargets, upWeights, backwardDist, backwardStamp,
+                                  forwardDist, forwardStamp, best);
+                }
+            }
+            
+            forwardHeap.clear();
+            backwardHeap.clear();
+            return best;
+        }
+        
+        // Settle one vertex on one side and return the updated best meeting distance
+        private long expand(IndexedHeap heap, int[] offsets, int[] targets, int[] weights,
+                            int[] stallOffsets, int[] stallTargets, int[] stallWeights, long[] dist, int[] stamp,
+                            long[] otherDist, int[] otherStamp, long best) {
+            int u = heap.pop();
+            long du = dist[u];
+            if (otherStamp[u] == generation) {
+                best = Math.min(best, du + otherDist[u]);
+            }
+            
+            // Stall-on-demand: if a higher vertex already reached on this side
+            // has a shorter edge down into u, u is not on a shortest path
+            for (int e = stallOffsets[u]; e < stallOffsets[u + 1]; e++) {
+                int w = stallTargets[e];
+                if (stamp[w] == generation && dist[w] + stallWeights[e] < du) {
+                    return best;
+                }
+            }
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                long candidate = du + weights[e];
+                if (stamp[v] != generation || candidate < dist[v]) {
+                    stamp[v] = generation;
+                    dist[v] = candidate;
+                    heap.pushOrDecrease(v, candidate);
+                    if (otherStamp[v] == generation) {
+                        best = Math.min(best, candidate + otherDist[v]);
+                    }
+                }
+            }
+            return best;
+        }
+        
+        public void save(Path file) throws IOException {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(vertices);
+                out.writeInt(upTargets.length);
+                out.writeInt(downTargets.length);
+                for (int[] array : new int[][] {upOffsets, upTargets, upWeights, downOffsets, downTargets, downWeights}) {
+                    for (int value : array) {
+                        out.writeInt(value);
+                    }
+                }
+            }
+        }
+        
+        public static ContractionHierarchy load(Path file) throws IOException {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException("Not a contraction hierarchy file: " + file);
+                }
+                int n = in.readInt();
+                int upCount = in.readInt();
+                int downCount = in.readInt();
+                return new ContractionHierarchy(n,
+                    readInts(in, n + 1), readInts(in, upCount), readInts(in, upCount),
+                    readInts(in, n + 1), readInts(in, downCount), readInts(in, downCount));
+            }
+        }
+        
+        private static int[] readInts(DataInputStream in, int count) throws IOException {
+            int[] values = new int[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = in.readInt();
+            }
+            return values;
+        }
+        
+        // Preprocessing: contract every vertex, then split all edges
+        // (original and shortcuts) by direction in the contraction order
+        static ContractionHierarchy build(int n, int[] offsets, int[] targets, int[] weights) {
+            Contractor contractor = new Contractor(n, offsets, targets, weights);
+            int[] rank = contractor.contractAll();
+            
+            int[] upCount = new int[n + 1];
+            int[] downCount = new int[n + 1];
+            for (int u = 0; u < n; u++) {
+                for (int i = 0; i < contractor.outDegree[u]; i++) {
+                    int x = contractor.outTo[u][i];
+                    if (rank[u] < rank[x]) {
+                        upCount[u + 1]++;
+                    } else {
+                        downCount[x + 1]++;
+                    }
+                }
+            }
+            for (int v = 0; v < n; v++) {
+                upCount[v + 1] += upCount[v];
+                downCount[v + 1] += downCount[v];
+            }
+            
+            int[] upTargets = new int[upCount[n]];
+            int[] upWeights = new int[upCount[n]];
+            int[] downTargets = new int[downCount[n]];
+            int[] downWeights = new int[downCount[n]];
+            int[] upNext = Arrays.copyOf(upCount, n);
+            int[] downNext = Arrays.copyOf(downCount, n);
+            for (int u = 0; u < n; u++) {
+                for (int i = 0; i < contractor.outDegree[u]; i++) {
+                    int x = contractor.outTo[u][i];
+                    int w = contractor.outWeight[u][i];
+                    if (rank[u] < rank[x]) {
+                        upTargets[upNext[u]] = x;
+                        upWeights[upNext[u]++] = w;
+                    } else {
+                        downTargets[downNext[x]] = u;
+                        downWeights[downNext[x]++] = w;
+                    }
+                }
+            }
+            return new ContractionHierarchy(n, upCount, upTargets, upWeights, downCount, downTargets, downWeights);
+        }
+    }
+    
+    // Mutable working graph used while contracting. Every arc ever added stays
+    // in the lists; contracted vertices are only skipped by witness searches.
+    private static final class Contractor {
+        // Give up looking for a witness path after settling this many vertices
+        private static final int WITNESS_SETTLE_LIMIT = 64;
+        
+        private final int n;
+        final int[][] outTo, outWeight, inFrom, inWeight;
+        final int[] outDegree, inDegree;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbors;
+        private final int[] level; // Longest chain of contracted vertices below each vertex
+        
+        // Witness search scratch space
+        private final long[] witnessDist;
+        private final int[] witnessStamp;
+        private int witnessGeneration;
+        private final IndexedHeap witnessHeap;
+        
+        Contractor(int n, int[] offsets, int[] targets, int[] weights) {
+            this.n = n;
+            outTo = new int[n][];
+            outWeight = new int[n][];
+            inFrom = new int[n][];
+            inWeight = new int[n][];
+            outDegree = new int[n];
+            inDegree = new int[n];
+            for (int v = 0; v < n; v++) {
+                outTo[v] = new int[2];
+                outWeight[v] = new int[2];
+                inFrom[v] = new int[2];
+                inWeight[v] = new int[2];
+            }
+            contracted = new boolean[n];
+            contractedNeighbors = new int[n];
+            level = new int[n];
+            witnessDist = new long[n];
+            witnessStamp = new int[n];
+            witnessHeap = new IndexedHeap(n);
+            
+            for (int u = 0; u < n; u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    if (targets[e] != u) {
+                        addArc(u, targets[e], weights[e]);
+                    }
+                }
+            }
+        }
+        
+        // Order vertices lazily by priority and contract them; returns the rank of each vertex
+        int[] contractAll() {
+            PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> Integer.compare(a[0], b[0]));
+            for (int v = 0; v < n; v++) {
+                queue.add(new int[] {priority(v), v});
+            }
+            
+            int[] rank = new int[n];
+            int order = 0;
+            while (!queue.isEmpty()) {
+                int[] entry = queue.poll();
+                int v = entry[1];
+                int current = priority(v);
+                if (!queue.isEmpty() && current > queue.peek()[0]) {
+                    queue.add(new int[] {current, v}); // Priority went stale, try again later
+                    continue;
+                }
+                contract(v, false);
+                contracted[v] = true;
+                rank[v] = order++;
+                for (int i = 0; i < outDegree[v]; i++) {
+                    int x = outTo[v][i];
+                    contractedNeighbors[x]++;
+                    level[x] = Math.max(level[x], level[v] + 1);
+                }
+                for (int i = 0; i < inDegree[v]; i++) {
+                    int u = inFrom[v][i];
+                    contractedNeighbors[u]++;
+                    level[u] = Math.max(level[u], level[v] + 1);
+                }
+            }
+            return rank;
+        }
+        
+        // Edge difference, contracted neighbours and level keep the order spread out
+        private int priority(int v) {
+            int remaining = 0;
+            for (int i = 0; i < outDegree[v]; i++) {
+                if (!contracted[outTo[v][i]]) {
+                    remaining++;
+                }
+            }
+            for (int i = 0; i < inDegree[v]; i++) {
+                if (!contracted[inFrom[v][i]]) {
+                    remaining++;
+                }
+            }
+            return 2 * (contract(v, true) - remaining) + contractedNeighbors[v] + level[v];
+        }
+        
+        // Count (simulate) or add the shortcuts needed to remove v
+        private int contract(int v, boolean simulate) {
+            int shortcuts = 0;
+            for (int i = 0; i < inDegree[v]; i++) {
+                int u = inFrom[v][i];
+                if (contracted[u]) {
+                    continue;
+                }
+                long limit = 0;
+                for (int j = 0; j < outDegree[v]; j++) {
+                    if (!contracted[outTo[v][j]]) {
+                        limit = Math.max(limit, (long) inWeight[v][i] + outWeight[v][j]);
+                    }
+                }
+                witnessSearch(u, v, limit);
+                
+                for (int j = 0; j < outDegree[v]; j++) {
+                    int x = outTo[v][j];
+                    if (contracted[x] || x == u) {
+                        continue;
+                    }
+                    long via = (long) inWeight[v][i] + outWeight[v][j];
+                    if (witnessStamp[x] == witnessGeneration && witnessDist[x] <= via) {
+                        continue; // Another path is at least as short
+                    }
+                    shortcuts++;
+                    if (!simulate) {
+                        addArc(u, x, Math.toIntExact(via));
+                    }
+                }
+            }
+            return shortcuts;
+        }
+        
+        // Bounded Dijkstra from source that ignores contracted vertices and v
+        private void witnessSearch(int source, int v, long limit) {
+            witnessGeneration++;
+            witnessStamp[source] = witnessGeneration;
+            witnessDist[source] = 0;
+            witnessHeap.pushOrDecrease(source, 0);
+            
+            int settled = 0;
+            while (!witnessHeap.isEmpty() && settled++ < WITNESS_SETTLE_LIMIT) {
+                if (witnessHeap.peekKey() > limit) {
+                    break;
+                }
+                int u = witnessHeap.pop();
+                for (int i = 0; i < outDegree[u]; i++) {
+                    int x = outTo[u][i];
+                    if (x == v || contracted[x]) {
+                        continue;
+                    }
+                    long candidate = witnessDist[u] + outWeight[u][i];
+                    if (witnessStamp[x] != witnessGeneration || candidate < witnessDist[x]) {
+                        witnessStamp[x] = witnessGeneration;
+                        witnessDist[x] = candidate;
+                        witnessHeap.pushOrDecrease(x, candidate);
+                    }
+                }
+            }
+            witnessHeap.clear();
+        }
+        
+        // Add u -> x, or lower its weight if the arc already exists
+        private void addArc(int u, int x, int w) {
+            for (int i = 0; i < outDegree[u]; i++) {
+                if (outTo[u][i] == x) {
+                    if (w < outWeight[u][i]) {
+                        outWeight[u][i] = w;
+                        for (int j = 0; j < inDegree[x]; j++) {
+                            if (inFrom[x][j] == u) {
+                                inWeight[x][j] = w;
+                            }
+                        }
+                    }
+                    return;
+                }
+            }
+            
+            if (outDegree[u] == outTo[u].length) {
+                outTo[u] = Arrays.copyOf(outTo[u], outDegree[u] * 2);
+                outWeight[u] = Arrays.copyOf(outWeight[u], outDegree[u] * 2);
+            }
+            outTo[u][outDegree[u]] = x;
+            outWeight[u][outDegree[u]++] = w;
+            
+            if (inDegree[x] == inFrom[x].length) {
+                inFrom[x] = Arrays.copyOf(inFrom[x], inDegree[x] * 2);
+                inWeight[x] = Arrays.copyOf(inWeight[x], inDegree[x] * 2);
+            }
+            inFrom[x][inDegree[x]] = u;
+            inWeight[x][inDegree[x]++] = w;
+        }
+    }
+    
+    public static void main(String[] args) {
+        DijkstraAlgorithm dijkstra = new DijkstraAlgorithm(6);
+        
+        // Add weighted directed edges
+        dijkstra.addEdge(0, 1, 7);
+        dijkstra.addEdge(0, 2, 9);
+        dijkstra.addEdge(0, 5, 14);
+        dijkstra.addEdge(1, 2, 10);
+        dijkstra.addEdge(1, 3, 15);
+        dijkstra.addEdge(2, 3, 11);
+        dijkstra.addEdge(2, 5, 2);
+        dijkstra.addEdge(3, 4, 6);
+        dijkstra.addEdge(5, 4, 9);
+        
+        Result result = dijkstra.shortestPaths(0);
+        System.out.println("Shortest distances from vertex 0:");
+        for (int v = 0; v < 6; v++) {
+            System.out.println("  to " + v + ": " + result.distance[v] + " via " + result.pathTo(v));
+        }
+        
+        // Compare both queues on a larger random graph
+        int n = 200_000;
+        int m = 1_000_000;
+        Random random = new Random(42);
+        DijkstraAlgorithm big = new DijkstraAlgorithm(n);
+        for (int i = 0; i < m; i++) {
+            big.addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(100));
+        }
+        
+        for (Mode mode : Mode.values()) {
+            big.shortestPaths(0, mode); // Warm up
+            long begin = System.nanoTime();
+            Result r = big.shortestPaths(0, mode);
+            long time = System.nanoTime() - begin;
+            
+            long checksum = 0;
+            for (long d : r.distance) {
+                if (d != INFINITY) {
+                    checksum += d;
+                }
+            }
+            System.out.println(mode + " on " + n + " vertices / " + m + " edges: " + time / 1_000_000 +
+                               " ms, distance checksum " + checksum);
+        }
+        
+        // Delta-stepping scaling with the number of worker threads
+        long[] sequential = big.shortestPaths(0).distance;
+        long delta = big.defaultDelta();
+        for (int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            big.shortestPathsDeltaStepping(0, delta, pool); // Warm up
+            long begin = System.nanoTime();
+            Result r = big.shortestPathsDeltaStepping(0, delta, pool);
+            long time = System.nanoTime() - begin;
+            pool.shutdown();
+            System.out.println("Delta-stepping (delta " + delta + ") with " + threads + " threads: " + time / 1_000_000 +
+                               " ms, matches sequential: " + Arrays.equals(sequential, r.distance));
+        }
+        
+        // Contraction hierarchy on a road-like 150x150 grid with random travel times
+        int side = 150;
+        DijkstraAlgorithm roads = new DijkstraAlgorithm(side * side);
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                int v = y * side + x;
+                if (x + 1 < side) {
+                    roads.addEdge(v, v + 1, 1 + random.nextInt(20));
+                    roads.addEdge(v + 1, v, 1 + random.nextInt(20));
+                }
+                if (y + 1 < side) {
+                    roads.addEdge(v, v + side, 1 + random.nextInt(20));
+                    roads.addEdge(v + side, v, 1 + random.nextInt(20));
+                }
+            }
+        }
+        
+        long begin = System.nanoTime();
+        ContractionHierarchy hierarchy = roads.buildContractionHierarchy();
+        long buildTime = System.nanoTime() - begin;
+        
+        try {
+            Path file = Files.createTempFile("roads", ".ch");
+            hierarchy.save(file);
+            hierarchy = ContractionHierarchy.load(file);
+            System.out.println("\nContraction hierarchy built in " + buildTime / 1_000_000 + " ms, " +
+                               hierarchy.getShortcutEdgeCount() + " edges, " + Files.size(file) + " bytes on disk");
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.out.println("Could not save the hierarchy: " + e.getMessage());
+        }
+        
+        int queries = 500;
+        int mismatches = 0;
+        long dijkstraTime = 0;
+        long hierarchyTime = 0;
+        for (int i = 0; i < queries; i++) {
+            int s = random.nextInt(side * side);
+            int t = random.nextInt(side * side);
+            
+            begin = System.nanoTime();
+            long expected = roads.shortestPaths(s).distance[t];
+            dijkstraTime += System.nanoTime() - begin;
+            
+            begin = System.nanoTime();
+            long actual = hierarchy.distance(s, t);
+            hierarchyTime += System.nanoTime() - begin;
+            
+            if (expected != actual) {
+                mismatches++;
+            }
+        }
+        System.out.println(queries + " point-to-point queries: Dijkstra " + dijkstraTime / queries / 1000 + " us avg, " +
+                           "hierarchy " + hierarchyTime / queries / 1000 + " us avg, " + mismatches + " mismatches");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,152 @@
+import java.util.*;
+
+// Directed graph with string labels, shared by BreadthFirstSearch and
+// DepthFirstSearch. Labels are interned to dense int ids once when edges are
+// added; the traversals run on CSR arrays of those ids and only turn ids back
+// into labels when they hand results out.
+public class LabeledGraph {
+    private final VertexDictionary dictionary = new VertexDictionary();
+    
+    // Edges in insertion order, as growable parallel arrays
+    private int[] edgeSource = new int[16];
+    private int[] edgeTarget = new int[16];
+    private int edgeCount;
+    
+    // CSR views, rebuilt lazily after edges are added
+    private int[] offsets, targets;
+    private int[] inOffsets, inSources;
+    
+    // Maps labels to dense ids 0..size()-1 and back
+    public static final class VertexDictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private String[] labels = new String[16];
+        private int size;
+        
+        // Id of label, assigning the next free id if it is new
+        public int intern(String label) {
+            Integer id = ids.get(label);
+            if (id != null) {
+                return id;
+            }
+            if (size == labels.length) {
+                labels = Arrays.copyOf(labels, size * 2);
+            }
+            labels[size] = label;
+            ids.put(label, size);
+            return size++;
+        }
+        
+        // Id of label, or -1 if it has never been interned
+        public int find(String label) {
+            Integer id = ids.get(label);
+            return id == null ? -1 : id;
+        }
+        
+        public String label(int id) {
+            if (id < 0 || id >= size) {
+                throw new IllegalArgumentException("Unknown vertex id " + id);
+            }
+            return labels[id];
+        }
+        
+        public List<String> labels(int[] ids, int count) {
+            List<String> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(label(ids[i]));
+            }
+            return result;
+        }
+        
+        public int size() {
+            return size;
+        }
+    }
+    
+    public VertexDictionary dictionary() {
+        return dictionary;
+    }
+    
+    public int addVertex(String label) {
+        int id = dictionary.intern(label);
+        offsets = null; // Vertex count changed
+        return id;
+    }
+    
+    public void addEdge(String source, String destination) {
+        addEdge(addVertex(source), addVertex(destination));
+    }
+    
+    public void addEdge(int source, int destination) {
+        if (source < 0 || source >= vertexCount() || destination < 0 || destination >= vertexCount()) {
+            throw new IllegalArgumentException("Edge " + source + " -> " + destination + " uses an unknown vertex");
+        }
+        if (edgeCount == edgeSource.length) {
+            edgeSource = Arrays.copyOf(edgeSource, edgeCount * 2);
+            edgeTarget = Arrays.copyOf(edgeTarget, edgeCount * 2);
+        }
+        edgeSource[edgeCount] = source;
+        edgeTarget[edgeCount] = destination;
+        edgeCount++;
+        offsets = null;
+    }
+    
+    public int vertexCount() {
+        return dictionary.size();
+    }
+    
+    public int edgeCount() {
+        return edgeCount;
+    }
+    
+    // Out-edges of v are targets()[offsets()[v] .. offsets()[v + 1]), in insertion order
+    public int[] offsets() {
+        buildCsr();
+        return offsets;
+    }
+    
+    public int[] targets() {
+        buildCsr();
+        return targets;
+    }
+    
+    // In-edges of v are inSources()[inOffsets()[v] .. inOffsets()[v + 1])
+    public int[] inOffsets() {
+        buildCsr();
+        return inOffsets;
+    }
+    
+    public int[] inSources() {
+        buildCsr();
+        return inSources;
+    }
+    
+    private void buildCsr() {
+        if (offsets != null) {
+            return;
+        }
+        int n = vertexCount();
+        int[][] out = countingSort(n, edgeSource, edgeTarget);
+        int[][] in = countingSort(n, edgeTarget, edgeSource);
+        offsets = out[0];
+        targets = out[1];
+        inOffsets = in[0];
+        inSources = in[1];
+    }
+    
+    // Stable bucket sort of values by key; returns {offsets, sorted values}
+    private int[][] countingSort(int n, int[] keys, int[] values) {
+        int[] start = new int[n + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            start[keys[i] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            start[v + 1] += start[v];
+        }
+        int[] next = Arrays.copyOf(start, n);
+        int[] sorted = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            sorted[next[keys[i]]++] = values[i];
+        }
+        return new int[][] {start, sorted};
+    }
+}
\ No newline at end of file
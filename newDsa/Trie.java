@@ -1,5 +1,15 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
 
 public class Trie {
     private static class TrieNode {
@@ -55,7 +65,577 @@ public class Trie {
         return current;
     }
     
-    public static void main(String[] args) {
+    // Radix (Patricia) trie with the same API. Single-child chains are merged
+    // into one node whose edge label holds the whole run of characters, and
+    // children are kept as a sorted char[] of first characters with a
+    // parallel child array, searched by binary search. There is no per-node
+    // HashMap and no boxing. Arrays are sized exactly, so inserts copy them,
+    // which keeps lookups and memory lean at some cost to insert speed.
+    public static class RadixTrie {
+        private static final char[] NO_KEYS = new char[0];
+        private static final RadixNode[] NO_CHILDREN = new RadixNode[0];
+        
+        private static final class RadixNode {
+            char[] label;     // Characters on the edge into this node
+            char[] keys = NO_KEYS;
+            RadixNode[] children = NO_CHILDREN;
+            boolean isEndOfWord;
+            
+            RadixNode(char[] label) {
+                this.label = label;
+            }
+            
+            void addChild(int index, RadixNode child) {
+                char[] newKeys = new char[keys.length + 1];
+                RadixNode[] newChildren = new RadixNode[children.length + 1];
+                System.arraycopy(keys, 0, newKeys, 0, index);
+                System.arraycopy(children, 0, newChildren, 0, index);
+                newKeys[index] = child.label[0];
+                newChildren[index] = child;
+                System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+                System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+                keys = newKeys;
+                children = newChildren;
+            }
+        }
+        
+        private final RadixNode root = new RadixNode(NO_KEYS);
+        private int nodeCount = 1;
+        
+        public void insert(String word) {
+            RadixNode current = root;
+            int i = 0;
+            while (i < word.length()) {
+                int k = Arrays.binarySearch(current.keys, word.charAt(i));
+                if (k < 0) {
+                    RadixNode leaf = new RadixNode(word.substring(i).toCharArray());
+                    leaf.isEndOfWord = true;
+                    current.addChild(-k - 1, leaf);
+                    nodeCount++;
+                    return;
+                }
+                
+                RadixNode child = current.children[k];
+                char[] label = child.label;
+                int matched = 1;
+                while (matched < label.length && i + matched < word.length() && label[matched] == word.charAt(i + matched)) {
+                    matched++;
+                }
+                if (matched < label.length) {
+                    // The word leaves this edge part-way: split it at the mismatch
+                    RadixNode middle = new RadixNode(Arrays.copyOf(label, matched));
+                    child.label = Arrays.copyOfRange(label, matched, label.length);
+                    middle.keys = new char[] {child.label[0]};
+                    middle.children = new RadixNode[] {child};
+                    current.children[k] = middle;
+                    nodeCount++;
+                    child = middle;
+                }
+                current = child;
+                i += matched;
+            }
+            current.isEndOfWord = true;
+        }
+        
+        public boolean search(String word) {
+            RadixNode node = findNode(word, false);
+            return node != null && node.isEndOfWord;
+        }
+        
+        public boolean startsWith(String prefix) {
+            return findNode(prefix, true) != null;
+        }
+        
+        // Node reached by str; with partial, str may also end inside that node's edge label
+        private RadixNode findNode(String str, boolean partial) {
+            RadixNode current = root;
+            int i = 0;
+            while (i < str.length()) {
+                int k = Arrays.binarySearch(current.keys, str.charAt(i));
+                if (k < 0) {
+                    return null;
+                }
+                current = current.children[k];
+                char[] label = current.label;
+                int end = Math.min(label.length, str.length() - i);
+                for (int j = 1; j < end; j++) {
+                    if (label[j] != str.charAt(i + j)) {
+                        return null;
+                    }
+                }
+                if (end < label.length && !partial) {
+                    return null;
+                }
+                i += end;
+            }
+            return current;
+        }
+        
+        public int getNodeCount() {
+            return nodeCount;
+        }
+    }
+    
+    // Weighted radix trie for autocomplete. Every node caches the best
+    // `capacity` completions below it, ordered by weight (ties by word), so
+    // topK(prefix, k) walks to the prefix and copies at most k entries; the
+    // subtree is never enumerated. A node's best words are always among its
+    // own word and its children's cached lists, so an insert or weight change
+    // only re-merges those lists along the path from the word back to the root.
+    public static class AutocompleteTrie {
+        private static final char[] NO_KEYS = new char[0];
+        private static final SuggestNode[] NO_CHILDREN = new SuggestNode[0];
+        private static final String[] NO_WORDS = new String[0];
+        private static final long[] NO_WEIGHTS = new long[0];
+        
+        private static final class SuggestNode {
+            char[] label;
+            char[] keys = NO_KEYS;
+            SuggestNode[] children = NO_CHILDREN;
+            String word; // Non-null if a word ends here
+            long weight;
+            String[] topWords = NO_WORDS;
+            long[] topWeights = NO_WEIGHTS;
+            
+            SuggestNode(char[] label) {
+                this.label = label;
+            }
+        }
+        
+        private final int capacity;
+        private final SuggestNode root = new SuggestNode(NO_KEYS);
+        private final List<SuggestNode> path = new ArrayList<>();
+        private int[] cursors = new int[4];
+        
+        public AutocompleteTrie(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Capacity must be positive");
+            }
+            this.capacity = capacity;
+        }
+        
+        // Insert word, or replace its weight if it is already present
+        public void insert(String word, long weight) {
+            SuggestNode node = descend(word);
+            node.word = word;
+            node.weight = weight;
+            refreshPath(word, weight);
+        }
+        
+        // Add delta to a word's weight, inserting it with weight delta if it is new
+        public void increment(String word, long delta) {
+            SuggestNode node = descend(word);
+            node.weight = node.word == null ? delta : node.weight + delta;
+            node.word = word;
+            refreshPath(word, node.weight);
+        }
+        
+        public long weight(String word) {
+            SuggestNode node = findNode(word, false);
+            if (node == null || node.word == null) {
+                throw new IllegalArgumentException("Unknown word: " + word);
+            }
+            return node.weight;
+        }
+        
+        public boolean search(String word) {
+            SuggestNode node = findNode(word, false);
+            return node != null && node.word != null;
+        }
+        
+        // The k heaviest words starting with prefix, heaviest first
+        public List<String> topK(String prefix, int k) {
+            if (k < 0 || k > capacity) {
+                throw new IllegalArgumentException("k must be between 0 and " + capacity);
+            }
+            SuggestNode node = findNode(prefix, true);
+            if (node == null) {
+                return Collections.emptyList();
+            }
+            return Arrays.asList(Arrays.copyOf(node.topWords, Math.min(k, node.topWords.length)));
+        }
+        
+        // Walk to word's node, creating or splitting nodes as needed, and record the path in `path`
+        private SuggestNode descend(String word) {
+            path.clear();
+            SuggestNode current = root;
+            path.add(current);
+            int i = 0;
+            while (i < word.length()) {
+                int k = Arrays.binarySearch(current.keys, word.charAt(i));
+                if (k < 0) {
+                    SuggestNode leaf = new SuggestNode(word.substring(i).toCharArray());
+                    addChild(current, -k - 1, leaf);
+                    path.add(leaf);
+                    return leaf;
+                }
+                
+                SuggestNode child = current.children[k];
+                char[] label = child.label;
+                int matched = 1;
+                while (matched < label.length && i + matched < word.length() && label[matched] == word.charAt(i + matched)) {
+                    matched++;
+                }
+                if (matched < label.length) {
+                    // The middle node covers exactly the child's subtree, so it starts with the same suggestions
+                    SuggestNode middle = new SuggestNode(Arrays.copyOf(label, matched));
+                    child.label = Arrays.copyOfRange(label, matched, label.length);
+                    middle.keys = new char[] {child.label[0]};
+                    middle.children = new SuggestNode[] {child};
+                    middle.topWords = child.topWords;
+                    middle.topWeights = child.topWeights;
+                    current.children[k] = middle;
+                    child = middle;
+                }
+                current = child;
+                path.add(current);
+                i += matched;
+            }
+            return current;
+        }
+        
+        private static void addChild(SuggestNode parent, int index, SuggestNode child) {
+            char[] keys = new char[parent.keys.length + 1];
+            SuggestNode[] children = new SuggestNode[parent.children.length + 1];
+            System.arraycopy(parent.keys, 0, keys, 0, index);
+            System.arraycopy(parent.children, 0, children, 0, index);
+            keys[index] = child.label[0];
+            children[index] = child;
+            System.arraycopy(parent.keys, index, keys, index + 1, parent.keys.length - index);
+            System.arraycopy(parent.children, index, children, index + 1, parent.children.length - index);
+            parent.keys = keys;
+            parent.children = children;
+        }
+        
+        // Refresh the path bottom-up, stopping at the first ancestor whose full
+        // list neither holds the word nor would admit it: that list cannot have
+        // changed, so nothing above it can either
+        private void refreshPath(String word, long weight) {
+            for (int i = path.size() - 1; i >= 0; i--) {
+                SuggestNode node = path.get(i);
+                if (i < path.size() - 1 && unaffected(node, word, weight)) {
+                    return;
+                }
+                refresh(node);
+            }
+        }
+        
+        private boolean unaffected(SuggestNode node, String word, long weight) {
+            if (node.topWords.length < capacity) {
+                return false;
+            }
+            for (String top : node.topWords) {
+                if (top.equals(word)) {
+                    return false;
+                }
+            }
+            String lastWord = node.topWords[capacity - 1];
+            long lastWeight = node.topWeights[capacity - 1];
+            return weight < lastWeight || (weight == lastWeight && word.compareTo(lastWord) > 0);
+        }
+        
+        // Rebuild a node's list by merging its own word with its children's sorted lists
+        private void refresh(SuggestNode node) {
+            SuggestNode[] children = node.children;
+            if (cursors.length < children.length) {
+                cursors = new int[children.length * 2];
+            }
+            Arrays.fill(cursors, 0, children.length, 0);
+            
+            String[] words = new String[capacity];
+            long[] weights = new long[capacity];
+            int size = 0;
+            boolean ownPending = node.word != null;
+            while (size < capacity) {
+                int best = -1;
+                String bestWord = ownPending ? node.word : null;
+                long bestWeight = ownPending ? node.weight : 0;
+                for (int c = 0; c < children.length; c++) {
+                    SuggestNode child = children[c];
+                    if (cursors[c] < child.topWords.length) {
+                        String word = child.topWords[cursors[c]];
+                        long weight = child.topWeights[cursors[c]];
+                        if (bestWord == null || weight > bestWeight || (weight == bestWeight && word.compareTo(bestWord) < 0)) {
+                            best = c;
+                            bestWord = word;
+                            bestWeight = weight;
+                        }
+                    }
+                }
+                if (bestWord == null) {
+                    break;
+                }
+                if (best < 0) {
+                    ownPending = false;
+                } else {
+                    cursors[best]++;
+                }
+                words[size] = bestWord;
+                weights[size++] = bestWeight;
+            }
+            node.topWords = size == capacity ? words : Arrays.copyOf(words, size);
+            node.topWeights = size == capacity ? weights : Arrays.copyOf(weights, size);
+        }
+        
+        private SuggestNode findNode(String str, boolean partial) {
+            SuggestNode current = root;
+            int i = 0;
+            while (i < str.length()) {
+                int k = Arrays.binarySearch(current.keys, str.charAt(i));
+                if (k < 0) {
+                    return null;
+                }
+                current = current.children[k];
+                char[] label = current.label;
+                int end = Math.min(label.length, str.length() - i);
+                for (int j = 1; j < end; j++) {
+                    if (label[j] != str.charAt(i + j)) {
+                        return null;
+                    }
+                }
+                if (end < label.length && !partial) {
+                    return null;
+                }
+                i += end;
+            }
+            return current;
+        }
+    }
+    
+    // Trie that many threads can read while others insert. Each node holds
+    // one volatile reference to an immutable Branch (sorted keys, children
+    // and the end-of-word flag), as the indirection nodes of a Ctrie do.
+    // Lookups just follow those references and never lock. An insert builds
+    // the new branch privately and publishes it with a single CAS on the
+    // node, retrying from that node if another writer got there first. A
+    // missing suffix is built as a private chain and linked in by that same
+    // CAS. Nodes are never removed or replaced, so every lookup sees each
+    // insert either completely or not at all.
+    public static class ConcurrentTrie {
+        private static final class Branch {
+            static final Branch EMPTY = new Branch(new char[0], new ConcurrentNode[0], false);
+            
+            final char[] keys;
+            final ConcurrentNode[] children;
+            final boolean isEndOfWord;
+            
+            Branch(char[] keys, ConcurrentNode[] children, boolean isEndOfWord) {
+                this.keys = keys;
+                this.children = children;
+                this.isEndOfWord = isEndOfWord;
+            }
+            
+            Branch withChild(int index, char key, ConcurrentNode child) {
+                char[] newKeys = new char[keys.length + 1];
+                ConcurrentNode[] newChildren = new ConcurrentNode[children.length + 1];
+                System.arraycopy(keys, 0, newKeys, 0, index);
+                System.arraycopy(children, 0, newChildren, 0, index);
+                newKeys[index] = key;
+                newChildren[index] = child;
+                System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+                System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+                return new Branch(newKeys, newChildren, isEndOfWord);
+            }
+        }
+        
+        private static final class ConcurrentNode {
+            volatile Branch main;
+            
+            ConcurrentNode(Branch main) {
+                this.main = main;
+            }
+        }
+        
+        private static final AtomicReferenceFieldUpdater<ConcurrentNode, Branch> MAIN =
+            AtomicReferenceFieldUpdater.newUpdater(ConcurrentNode.class, Branch.class, "main");
+        
+        private final ConcurrentNode root = new ConcurrentNode(Branch.EMPTY);
+        private final LongAdder casFailures = new LongAdder();
+        
+        // Returns true if the word was not present before
+        public boolean insert(String word) {
+            ConcurrentNode current = root;
+            int i = 0;
+            while (i < word.length()) {
+                Branch branch = current.main;
+                int k = Arrays.binarySearch(branch.keys, word.charAt(i));
+                if (k >= 0) {
+                    current = branch.children[k];
+                    i++;
+                    continue;
+                }
+                if (MAIN.compareAndSet(current, branch, branch.withChild(-k - 1, word.charAt(i), chain(word, i + 1)))) {
+                    return true;
+                }
+                casFailures.increment(); // Re-read this node's branch and try again
+            }
+            
+            while (true) {
+                Branch branch = current.main;
+                if (branch.isEndOfWord) {
+                    return false;
+                }
+                if (MAIN.compareAndSet(current, branch, new Branch(branch.keys, branch.children, true))) {
+                    return true;
+                }
+                casFailures.increment();
+            }
+        }
+        
+        // Private nodes spelling word[from..], with the last one marked as a word end
+        private static ConcurrentNode chain(String word, int from) {
+            ConcurrentNode node = new ConcurrentNode(new Branch(Branch.EMPTY.keys, Branch.EMPTY.children, true));
+            for (int i = word.length() - 1; i >= from; i--) {
+                node = new ConcurrentNode(new Branch(new char[] {word.charAt(i)}, new ConcurrentNode[] {node}, false));
+            }
+            return node;
+        }
+        
+        public boolean search(String word) {
+            ConcurrentNode node = findNode(word);
+            return node != null && node.main.isEndOfWord;
+        }
+        
+        public boolean startsWith(String prefix) {
+            return findNode(prefix) != null;
+        }
+        
+        private ConcurrentNode findNode(String str) {
+            ConcurrentNode current = root;
+            for (int i = 0; i < str.length(); i++) {
+                Branch branch = current.main;
+                int k = Arrays.binarySearch(branch.keys, str.charAt(i));
+                if (k < 0) {
+                    return null;
+                }
+                current = branch.children[k];
+            }
+            return current;
+        }
+        
+        public long getCasFailures() {
+            return casFailures.sum();
+        }
+    }
+    
+    // Many threads insert overlapping word sets at once. Returns the number of
+    // problems: attempted words missing afterwards, plus any difference between
+    // the inserts reported as new and the distinct words inserted.
+    static int stressConcurrentTrie(int threads, int wordsPerThread) throws InterruptedException {
+        ConcurrentTrie trie = new ConcurrentTrie();
+        String[] words = randomWords(wordsPerThread * threads / 2, 3);
+        boolean[][] attempted = new boolean[threads][words.length];
+        AtomicLong reportedNew = new AtomicLong();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> {
+                Random random = new Random(id);
+                long added = 0;
+                for (int i = 0; i < wordsPerThread; i++) {
+                    int w = random.nextInt(words.length);
+                    attempted[id][w] = true;
+                    if (trie.insert(words[w])) {
+                        added++;
+                    }
+                }
+                reportedNew.addAndGet(added);
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        
+        Set<String> inserted = new HashSet<>();
+        int problems = 0;
+        for (int w = 0; w < words.length; w++) {
+            for (int t = 0; t < threads; t++) {
+                if (attempted[t][w]) {
+                    inserted.add(words[w]);
+                    if (!trie.search(words[w])) {
+                        problems++;
+                    }
+                    break;
+                }
+            }
+        }
+        // Each distinct word must have been reported new exactly once
+        problems += (int) Math.abs(reportedNew.get() - inserted.size());
+        return problems;
+    }
+    
+    // Reader threads search while one writer keeps inserting new words.
+    // Returns {reads per second, writes per second}.
+    static long[] benchmarkConcurrentTrie(int readers, long millis) throws InterruptedException {
+        ConcurrentTrie trie = new ConcurrentTrie();
+        String[] words = randomWords(400_000, 11);
+        for (int i = 0; i < words.length / 2; i++) {
+            trie.insert(words[i]);
+        }
+        
+        AtomicLong reads = new AtomicLong();
+        AtomicLong writes = new AtomicLong();
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        Thread writer = new Thread(() -> {
+            long count = 0;
+            for (int i = words.length / 2; System.nanoTime() < deadline; i++) {
+                trie.insert(i < words.length ? words[i] : words[i % words.length] + i);
+                count++;
+            }
+            writes.set(count);
+        });
+        Thread[] workers = new Thread[readers];
+        for (int t = 0; t < readers; t++) {
+            long seed = t;
+            workers[t] = new Thread(() -> {
+                Random random = new Random(seed);
+                long count = 0;
+                while ((count & 1023) != 0 || System.nanoTime() < deadline) {
+                    trie.search(words[random.nextInt(words.length)]);
+                    count++;
+                }
+                reads.addAndGet(count);
+            });
+        }
+        writer.start();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        writer.join();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return new long[] {reads.get() * 1000 / millis, writes.get() * 1000 / millis};
+    }
+    
+    // Words built from random syllables, so they share prefixes the way real terms do
+    private static String[] randomWords(int count, long seed) {
+        String[] syllables = {"ka", "lo", "mi", "ne", "ru", "sa", "ti", "vo", "ba", "de", "fi", "go", "hu", "ja", "pe", "qu",
+                              "ro", "si", "tu", "wa", "xe", "yo", "za", "ch", "st", "tr", "pl", "ing", "er", "ion"};
+        Random random = new Random(seed);
+        String[] words = new String[count];
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.setLength(0);
+            int parts = 2 + random.nextInt(5);
+            for (int j = 0; j < parts; j++) {
+                builder.append(syllables[random.nextInt(syllables.length)]);
+            }
+            words[i] = builder.toString();
+        }
+        return words;
+    }
+    
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+    
+    public static void main(String[] args) throws InterruptedException {
         Trie trie = new Trie();
         
         // Insert words
@@ -74,5 +654,84 @@ public class Trie {
         System.out.println("Starts with 'app': " + trie.startsWith("app"));
         System.out.println("Starts with 'ban': " + trie.startsWith("ban"));
         System.out.println("Starts with 'cat': " + trie.startsWith("cat"));
+        
+        RadixTrie radix = new RadixTrie();
+        for (String word : new String[] {"apple", "application", "app", "banana"}) {
+            radix.insert(word);
+        }
+        System.out.println("\nRadix trie: search 'app' " + radix.search("app") + ", search 'appl' " + radix.search("appl") +
+                           ", starts with 'appli' " + radix.startsWith("appli") + ", " + radix.getNodeCount() + " nodes");
+        
+        // Memory and lookup throughput of both layouts on the same dictionary
+        String[] words = randomWords(500_000, 42);
+        String[] probes = randomWords(1_000_000, 7);
+        
+        long before = usedMemory();
+        Trie hashTrie = new Trie();
+        for (String word : words) {
+            hashTrie.insert(word);
+        }
+        long hashBytes = usedMemory() - before;
+        
+        before = usedMemory();
+        RadixTrie radixTrie = new RadixTrie();
+        for (String word : words) {
+            radixTrie.insert(word);
+        }
+        long radixBytes = usedMemory() - before;
+        
+        int hashFound = 0, radixFound = 0;
+        long begin = System.nanoTime();
+        for (String probe : probes) {
+            if (hashTrie.search(probe)) {
+                hashFound++;
+            }
+        }
+        long hashTime = System.nanoTime() - begin;
+        begin = System.nanoTime();
+        for (String probe : probes) {
+            if (radixTrie.search(probe)) {
+                radixFound++;
+            }
+        }
+        long radixTime = System.nanoTime() - begin;
+        
+        System.out.printf("%d words: HashMap trie %.1f MB, radix trie %.1f MB (%d nodes, %.1fx smaller)%n",
+                          words.length, hashBytes / 1e6, radixBytes / 1e6, radixTrie.getNodeCount(),
+                          (double) hashBytes / radixBytes);
+        System.out.printf("%d lookups: HashMap trie %.1f M/s, radix trie %.1f M/s, same hits: %b%n",
+                          probes.length, probes.length * 1e3 / hashTime, probes.length * 1e3 / radixTime,
+                          hashFound == radixFound);
+        
+        // Autocomplete: Zipf-like weights, cached top-10 per node
+        AutocompleteTrie autocomplete = new AutocompleteTrie(10);
+        begin = System.nanoTime();
+        for (int i = 0; i < words.length; i++) {
+            autocomplete.increment(words[i], 1_000_000 / (i + 1));
+        }
+        long buildTime = System.nanoTime() - begin;
+        
+        String[] prefixes = {"k", "ka", "kalo", "ing", "stpl", "zaqu"};
+        begin = System.nanoTime();
+        int rounds = 100_000;
+        for (int r = 0; r < rounds; r++) {
+            autocomplete.topK(prefixes[r % prefixes.length], 10);
+        }
+        long queryTime = System.nanoTime() - begin;
+        System.out.printf("Autocomplete over %d words: built in %d ms, topK(prefix, 10) in %.2f us%n",
+                          words.length, buildTime / 1_000_000, queryTime / 1e3 / rounds);
+        System.out.println("Top 5 for 'ka': " + autocomplete.topK("ka", 5));
+        
+        String rising = autocomplete.topK("kalo", 10).get(9);
+        autocomplete.increment(rising, 10_000_000);
+        System.out.println("After boosting '" + rising + "': top 3 for 'k' " + autocomplete.topK("k", 3));
+        
+        // Concurrent trie: racing inserts, then lookups scaling while a writer keeps inserting
+        System.out.println("\nConcurrent trie stress test problems: " + stressConcurrentTrie(8, 50_000));
+        for (int readers = 1; readers <= Math.max(4, Runtime.getRuntime().availableProcessors()); readers *= 2) {
+            long[] rates = benchmarkConcurrentTrie(readers, 300);
+            System.out.println("Concurrent trie, " + readers + " readers + 1 writer: " + rates[0] + " reads/s, " +
+                               rates[1] + " writes/s");
+        }
     }
 }
\ No newline at end of file
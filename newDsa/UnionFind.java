@@ -1,4 +1,11 @@
 import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
 
 public class UnionFind {
     private int[] parent;
@@ -58,7 +65,283 @@ public class UnionFind {
         return count;
     }
     
-    public static void main(String[] args) {
+    // Lock-free union-find for many threads sharing one structure, after
+    // Anderson/Woll and Jayanti-Tarjan. find() halves paths with CAS, and
+    // union() links a root under another root with a single CAS that fails if
+    // the root was linked elsewhere first, in which case it retries. Roots are
+    // always linked under the one with the higher priority, a random
+    // permutation fixed at construction, so no cycle can form and no union
+    // order can force long chains: trees stay O(log n) deep in expectation.
+    public static final class ConcurrentUnionFind {
+        private final AtomicIntegerArray parent;
+        private final AtomicInteger count;
+        private final int[] priority;
+        
+        public ConcurrentUnionFind(int size) {
+            this(size, new Random());
+        }
+        
+        public ConcurrentUnionFind(int size, Random random) {
+            parent = new AtomicIntegerArray(size);
+            count = new AtomicInteger(size);
+            priority = new int[size];
+            for (int i = 0; i < size; i++) {
+                parent.set(i, i);
+                // Inside-out Fisher-Yates: priority ends up a uniform random permutation
+                int j = random.nextInt(i + 1);
+                priority[i] = priority[j];
+                priority[j] = i;
+            }
+        }
+        
+        // Root of x's set, pointing each visited node at its grandparent on the way
+        public int find(int x) {
+            while (true) {
+                int p = parent.get(x);
+                if (p == x) {
+                    return x;
+                }
+                int grandparent = parent.get(p);
+                if (p != grandparent) {
+                    parent.compareAndSet(x, p, grandparent); // Losing this race is harmless
+                }
+                x = grandparent;
+            }
+        }
+        
+        // Returns true if this call merged two different sets
+        public boolean union(int x, int y) {
+            while (true) {
+                x = find(x);
+                y = find(y);
+                if (x == y) {
+                    return false;
+                }
+                int child = priority[x] < priority[y] ? x : y;
+                int root = child == x ? y : x;
+                if (parent.compareAndSet(child, child, root)) {
+                    count.decrementAndGet();
+                    return true;
+                }
+            }
+        }
+        
+        // Differing roots only prove disjointness if x's root is still a root afterwards
+        public boolean connected(int x, int y) {
+            while (true) {
+                x = find(x);
+                y = find(y);
+                if (x == y) {
+                    return true;
+                }
+                if (parent.get(x) == x) {
+                    return false;
+                }
+            }
+        }
+        
+        // Exact once writers are quiescent; never below the true count while they run
+        public int getCount() {
+            return count.get();
+        }
+        
+        // Links from x to its root, without compressing; for measuring tree shape
+        int depth(int x) {
+            int links = 0;
+            for (int p = parent.get(x); p != x; x = p, p = parent.get(x)) {
+                links++;
+            }
+            return links;
+        }
+    }
+    
+    // Minimum spanning forest of an undirected graph given as parallel edge
+    // arrays (from[i], to[i], weight[i]). Equal weights are ordered by edge
+    // index, so both algorithms pick the same forest.
+    public static final class MinimumSpanningForest {
+        public final long totalWeight;
+        public final int[] edges; // Indices into the input arrays
+        
+        private MinimumSpanningForest(long totalWeight, int[] edges) {
+            this.totalWeight = totalWeight;
+            this.edges = edges;
+        }
+        
+        // Weight in the high half, index in the low half: sorts by weight, then index
+        private static long key(int[] weight, int e) {
+            return ((long) weight[e] << 32) | e;
+        }
+        
+        // Kruskal: parallel sort of packed edge keys, then a sequential UnionFind sweep
+        public static MinimumSpanningForest kruskal(int vertices, int[] from, int[] to, int[] weight) {
+            long[] keys = new long[from.length];
+            for (int e = 0; e < keys.length; e++) {
+                keys[e] = key(weight, e);
+            }
+            Arrays.parallelSort(keys);
+            
+            UnionFind components = new UnionFind(vertices);
+            int[] chosen = new int[Math.max(vertices - 1, 0)];
+            int size = 0;
+            long total = 0;
+            for (int i = 0; i < keys.length && components.getCount() > 1; i++) {
+                int e = (int) keys[i];
+                if (!components.connected(from[e], to[e])) {
+                    components.union(from[e], to[e]);
+                    chosen[size++] = e;
+                    total += weight[e];
+                }
+            }
+            return new MinimumSpanningForest(total, Arrays.copyOf(chosen, size));
+        }
+        
+        // Parallel Boruvka. Each round scans the remaining edges in parallel and
+        // records every component's cheapest outgoing edge with a CAS min, then
+        // merges along those edges with the lock-free union-find and drops the
+        // edges that became internal. Components at least halve every round.
+        public static MinimumSpanningForest boruvka(int vertices, int[] from, int[] to, int[] weight, ForkJoinPool pool) {
+            ConcurrentUnionFind components = new ConcurrentUnionFind(vertices);
+            AtomicLongArray cheapest = new AtomicLongArray(vertices);
+            int[] chosen = new int[Math.max(vertices - 1, 0)];
+            AtomicInteger size = new AtomicInteger();
+            int[] active = pool.submit(() -> IntStream.range(0, from.length).parallel()
+                .filter(e -> from[e] != to[e]).toArray()).join();
+            
+            while (active.length > 0) {
+                int[] remaining = active;
+                pool.submit(() -> IntStream.range(0, vertices).parallel()
+                    .forEach(v -> cheapest.set(v, Long.MAX_VALUE))).join();
+                pool.submit(() -> Arrays.stream(remaining).parallel().forEach(e -> {
+                    long key = key(weight, e);
+                    lowerTo(cheapest, components.find(from[e]), key);
+                    lowerTo(cheapest, components.find(to[e]), key);
+                })).join();
+                
+                // Roots were fixed during the scan, so every component has a cheapest entry at its root
+                pool.submit(() -> IntStream.range(0, vertices).parallel().forEach(v -> {
+                    long key = cheapest.get(v);
+                    if (key != Long.MAX_VALUE) {
+                        int e = (int) key;
+                        if (components.union(from[e], to[e])) {
+                            chosen[size.getAndIncrement()] = e;
+                        }
+                    }
+                })).join();
+                
+                active = pool.submit(() -> Arrays.stream(remaining).parallel()
+                    .filter(e -> !components.connected(from[e], to[e])).toArray()).join();
+            }
+            
+            int[] result = Arrays.copyOf(chosen, size.get());
+            long total = 0;
+            for (int e : result) {
+                total += weight[e];
+            }
+            return new MinimumSpanningForest(total, result);
+        }
+        
+        private static void lowerTo(AtomicLongArray values, int index, long value) {
+            long current = values.get(index);
+            while (value < current && !values.compareAndSet(index, current, value)) {
+                current = values.get(index);
+            }
+        }
+    }
+    
+    // Runs random unions and connectivity queries on many threads, then checks
+    // every observation against a sequential UnionFind fed the successful
+    // unions. Returns the number of violations found.
+    static int stressConcurrentUnionFind(int threads, int size, int operationsPerThread) throws InterruptedException {
+        ConcurrentUnionFind shared = new ConcurrentUnionFind(size);
+        int[][] merged = new int[threads][];  // Successful unions per thread, as pairs
+        int[][] joined = new int[threads][];  // Pairs that connected() reported true
+        int[] mergedCount = new int[threads];
+        int[] joinedCount = new int[threads];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> {
+                Random random = new Random(id);
+                int[] mine = new int[2 * operationsPerThread];
+                int[] seen = new int[2 * operationsPerThread];
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < operationsPerThread; i++) {
+                    int x = random.nextInt(size), y = random.nextInt(size);
+                    if (random.nextBoolean()) {
+                        if (shared.union(x, y)) {
+                            mine[2 * mergedCount[id]] = x;
+                            mine[2 * mergedCount[id]++ + 1] = y;
+                        }
+                    } else if (shared.connected(x, y)) {
+                        seen[2 * joinedCount[id]] = x;
+                        seen[2 * joinedCount[id]++ + 1] = y;
+                    }
+                }
+                merged[id] = mine;
+                joined[id] = seen;
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        
+        UnionFind sequential = new UnionFind(size);
+        int violations = 0;
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < mergedCount[t]; i++) {
+                int x = merged[t][2 * i], y = merged[t][2 * i + 1];
+                if (sequential.connected(x, y)) {
+                    violations++; // Two successful unions claimed the same merge
+                }
+                sequential.union(x, y);
+            }
+        }
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < joinedCount[t]; i++) {
+                if (!sequential.connected(joined[t][2 * i], joined[t][2 * i + 1])) {
+                    violations++; // Reported connected without any union joining them
+                }
+            }
+        }
+        for (int x = 0; x < size; x++) {
+            if (!shared.connected(x, sequential.find(x))) {
+                violations++;
+            }
+        }
+        if (shared.getCount() != sequential.getCount()) {
+            violations++;
+        }
+        return violations;
+    }
+    
+    private static void benchmarkSpanningForest(String name, int vertices, int edgeCount, Random random) {
+        int[] from = new int[edgeCount];
+        int[] to = new int[edgeCount];
+        int[] weight = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            from[i] = random.nextInt(vertices);
+            to[i] = random.nextInt(vertices);
+            weight[i] = random.nextInt(1_000_000);
+        }
+        long begin = System.nanoTime();
+        MinimumSpanningForest kruskal = MinimumSpanningForest.kruskal(vertices, from, to, weight);
+        long kruskalTime = System.nanoTime() - begin;
+        begin = System.nanoTime();
+        MinimumSpanningForest boruvka = MinimumSpanningForest.boruvka(vertices, from, to, weight, ForkJoinPool.commonPool());
+        long boruvkaTime = System.nanoTime() - begin;
+        System.out.printf("%s MST, %d vertices / %d edges: Kruskal %d ms, Boruvka %d ms, %d tree edges, same weight: %b%n",
+                          name, vertices, edgeCount, kruskalTime / 1_000_000, boruvkaTime / 1_000_000,
+                          kruskal.edges.length, kruskal.totalWeight == boruvka.totalWeight);
+    }
+    
+    public static void main(String[] args) throws InterruptedException {
         int n = 10;
         UnionFind uf = new UnionFind(n);
         
@@ -84,5 +367,60 @@ public class UnionFind {
         for (int i = 0; i < n; i++) {
             System.out.print(uf.find(i) + " ");
         }
+        
+        // Concurrent variant: stress test, then throughput over a large edge stream
+        System.out.println("\n\nConcurrent stress test violations: " + stressConcurrentUnionFind(8, 10_000, 200_000));
+        
+        int size = 1_000_000;
+        int edges = 4_000_000;
+        int[] from = new int[edges];
+        int[] to = new int[edges];
+        Random random = new Random(42);
+        for (int i = 0; i < edges; i++) {
+            from[i] = random.nextInt(size);
+            to[i] = random.nextInt(size);
+        }
+        long begin = System.nanoTime();
+        UnionFind single = new UnionFind(size);
+        for (int i = 0; i < edges; i++) {
+            single.union(from[i], to[i]);
+        }
+        System.out.printf("Sequential: %d components in %d ms%n", single.getCount(), (System.nanoTime() - begin) / 1_000_000);
+        
+        for (int threads = 1; threads <= Runtime.getRuntime().availableProcessors() * 2; threads *= 2) {
+            ConcurrentUnionFind concurrent = new ConcurrentUnionFind(size);
+            Thread[] workers = new Thread[threads];
+            begin = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                int first = (int) ((long) edges * t / threads), last = (int) ((long) edges * (t + 1) / threads);
+                workers[t] = new Thread(() -> {
+                    for (int i = first; i < last; i++) {
+                        concurrent.union(from[i], to[i]);
+                    }
+                });
+                workers[t].start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            System.out.printf("Concurrent, %d threads: %d components in %d ms%n",
+                              threads, concurrent.getCount(), (System.nanoTime() - begin) / 1_000_000);
+        }
+        
+        // Unions along a path in index order: linking by index alone would build one long chain
+        int chainSize = 1_000_000;
+        ConcurrentUnionFind chain = new ConcurrentUnionFind(chainSize, new Random(42));
+        for (int i = 0; i + 1 < chainSize; i++) {
+            chain.union(i, i + 1);
+        }
+        int deepest = 0;
+        for (int i = 0; i < chainSize; i++) {
+            deepest = Math.max(deepest, chain.depth(i));
+        }
+        System.out.println("Path unions over " + chainSize + " elements: deepest find walks " + deepest + " links");
+        
+        // Minimum spanning forest: Kruskal against parallel Boruvka on sparse and dense inputs
+        benchmarkSpanningForest("Sparse", 1_000_000, 5_000_000, random);
+        benchmarkSpanningForest("Dense", 3_000, 4_000_000, random);
     }
 }
\ No newline at end of file